@@ -0,0 +1,34 @@
+package edu.cmu.andrew.mpanindr;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * The BenchmarkRunner class is the entry point of the benchmarks jar. It accepts the usual JMH command-line options and
+ * always attaches the GC profiler, so every run reports allocation rates (gc.alloc.rate.norm is bytes per operation)
+ * next to the timings.
+ * <p>
+ * Usage:
+ * - mvn -P jmh package
+ * - java -jar target/benchmarks.jar [JMH options, e.g. a benchmark regex or -p keyBits=1024]
+ */
+public class BenchmarkRunner {
+
+    /**
+     * Runs the benchmarks selected by the command-line options with the GC profiler attached.
+     *
+     * @param args JMH command-line options.
+     * @throws CommandLineOptionException If the options cannot be parsed.
+     * @throws RunnerException If a benchmark fails.
+     */
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,57 @@
+package edu.cmu.andrew.mpanindr;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The BinaryConversionBenchmark class measures stringToBinary() and binaryToString() on printable ASCII text.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BinaryConversionBenchmark {
+    /**
+     * Length of the text in characters.
+     */
+    @Param({"10", "80", "1000"})
+    public int messageLength;
+
+    private String text;
+    private String binary;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(3);
+        StringBuilder builder = new StringBuilder(messageLength);
+        for (int i = 0; i < messageLength; i++) {
+            builder.append((char) (' ' + random.nextInt(95)));
+        }
+        text = builder.toString();
+        binary = MerkleHellmanKnapsack.stringToBinary(text);
+    }
+
+    @Benchmark
+    public String stringToBinary() {
+        return MerkleHellmanKnapsack.stringToBinary(text);
+    }
+
+    @Benchmark
+    public String binaryToString() {
+        return MerkleHellmanKnapsack.binaryToString(binary);
+    }
+}
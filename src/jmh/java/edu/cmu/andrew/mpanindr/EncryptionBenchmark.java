@@ -0,0 +1,103 @@
+package edu.cmu.andrew.mpanindr;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The EncryptionBenchmark class measures encryption and decryption of a single message, over both the byte[] and the
+ * binary-string entry points.
+ * <p>
+ * Keys and messages are generated from fixed seeds so every run, before and after a change, measures the same inputs.
+ * Every keyBits value is large enough for every messageBytes value. The elementBits parameter sets the size of each
+ * private key term, and with it the width of every public key element and ciphertext, so the runs show how encrypt
+ * throughput scales with the size of the numbers being added as well as with their count.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class EncryptionBenchmark {
+    /**
+     * Length of the message in bytes.
+     */
+    @Param({"10", "80"})
+    public int messageBytes;
+
+    /**
+     * Number of key elements.
+     */
+    @Param({"1024", "4096"})
+    public int keyBits;
+
+    /**
+     * Bit length of each random term of the private key sequence, which sets the width of the key and ciphertext.
+     */
+    @Param({"32", "64"})
+    public int elementBits;
+
+    private PublicKey publicKey;
+    private PrivateKey privateKey;
+    private DecryptionContext context;
+    private byte[] message;
+    private String binaryMessage;
+    private BigInteger cipherText;
+
+    @Setup
+    public void setUp() {
+        KeyPair keyPair = new KeyGenerator(new Random(1)).generate(keyBits, elementBits);
+        publicKey = keyPair.getPublicKey();
+        privateKey = keyPair.getPrivateKey();
+        context = new DecryptionContext(privateKey);
+
+        message = new byte[messageBytes];
+        new Random(2).nextBytes(message);
+        StringBuilder binary = new StringBuilder(messageBytes * 8);
+        for (byte b : message) {
+            for (int bit = 7; bit >= 0; bit--) {
+                binary.append((b >>> bit) & 1);
+            }
+        }
+        binaryMessage = binary.toString();
+        cipherText = MerkleHellmanKnapsack.encrypt(message, publicKey);
+    }
+
+    @Benchmark
+    public BigInteger encryptBytes() {
+        return MerkleHellmanKnapsack.encrypt(message, publicKey);
+    }
+
+    @Benchmark
+    public BigInteger encryptBinaryString() {
+        return MerkleHellmanKnapsack.encrypt(binaryMessage, publicKey);
+    }
+
+    @Benchmark
+    public byte[] decryptBytes() {
+        return MerkleHellmanKnapsack.decryptBytes(cipherText, privateKey);
+    }
+
+    @Benchmark
+    public byte[] decryptBytesWithContext() {
+        return MerkleHellmanKnapsack.decryptBytes(cipherText, context);
+    }
+
+    @Benchmark
+    public String decryptBinaryString() {
+        return MerkleHellmanKnapsack.decrypt(cipherText, privateKey);
+    }
+}
@@ -0,0 +1,54 @@
+package edu.cmu.andrew.mpanindr;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The KeyGenerationBenchmark class measures KeyGenerator.generate() for several key sizes, using the default
+ * SecureRandom-backed generator as production code does.
+ * <p>
+ * An elementBits value of 0 measures generate(keyBits), which picks the term size itself; any other value measures
+ * generate(keyBits, elementBits) with exact-size terms of that many bits.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class KeyGenerationBenchmark {
+    /**
+     * Number of key elements, i.e. the message bits the key can encrypt.
+     */
+    @Param({"80", "640", "4096"})
+    public int keyBits;
+
+    /**
+     * Bit length of each random term of the private key sequence, or 0 for the size generate(keyBits) picks.
+     */
+    @Param({"0", "32", "64"})
+    public int elementBits;
+
+    private KeyGenerator generator;
+
+    @Setup
+    public void setUp() {
+        generator = new KeyGenerator();
+    }
+
+    @Benchmark
+    public KeyPair generate() {
+        return elementBits == 0 ? generator.generate(keyBits) : generator.generate(keyBits, elementBits);
+    }
+}
@@ -0,0 +1,58 @@
+package edu.cmu.andrew.mpanindr;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The StreamBenchmark class compares the bulk throughput of KnapsackStreams, which encrypts every block with the
+ * knapsack, with HybridStreams, which encrypts only a session key with it. Output is discarded so only encryption is
+ * measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class StreamBenchmark {
+    /**
+     * Length of the payload in bytes.
+     */
+    @Param({"4096", "1048576"})
+    public int payloadBytes;
+
+    private PublicKey publicKey;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() {
+        publicKey = new KeyGenerator(new Random(1)).generate(HybridStreams.SESSION_KEY_BYTES * 8).getPublicKey();
+        payload = new byte[payloadBytes];
+        new Random(2).nextBytes(payload);
+    }
+
+    @Benchmark
+    public long knapsackStream() throws IOException {
+        return KnapsackStreams.encrypt(new ByteArrayInputStream(payload), OutputStream.nullOutputStream(), publicKey);
+    }
+
+    @Benchmark
+    public long hybridStream() throws IOException {
+        return HybridStreams.encrypt(new ByteArrayInputStream(payload), OutputStream.nullOutputStream(), publicKey);
+    }
+}
@@ -0,0 +1,81 @@
+package edu.cmu.andrew.mpanindr;
+
+/**
+ * The BatchStatistics class reports the size and duration of one batch encryption, so the throughput of batched
+ * calls can be compared with per-message calls.
+ * <p>
+ * Instances are immutable.
+ * <p>
+ * Time Complexity:
+ * - All methods are O(1).
+ */
+public final class BatchStatistics {
+    private final int messages;
+    private final long bytes;
+    private final long elapsedNanos;
+
+    /**
+     * Creates the statistics for a finished batch.
+     *
+     * @param messages     The number of messages encrypted.
+     * @param bytes        The total number of plaintext bytes encrypted.
+     * @param elapsedNanos The wall-clock time the batch took, in nanoseconds.
+     * @time-complexity O(1)
+     */
+    public BatchStatistics(int messages, long bytes, long elapsedNanos) {
+        this.messages = messages;
+        this.bytes = bytes;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Returns the number of messages in the batch.
+     *
+     * @return The message count.
+     */
+    public int getMessages() {
+        return messages;
+    }
+
+    /**
+     * Returns the total number of plaintext bytes in the batch.
+     *
+     * @return The byte count.
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Returns the time the batch took.
+     *
+     * @return The elapsed time in nanoseconds.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Returns the batch throughput in messages per second.
+     *
+     * @return Messages per second, or 0 if no time was measured.
+     */
+    public double messagesPerSecond() {
+        return elapsedNanos == 0 ? 0 : messages * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Returns the batch throughput in plaintext bytes per second.
+     *
+     * @return Bytes per second, or 0 if no time was measured.
+     */
+    public double bytesPerSecond() {
+        return elapsedNanos == 0 ? 0 : bytes * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d messages, %d bytes in %.3f ms (%.0f messages/s)",
+                messages, bytes, elapsedNanos / 1e6, messagesPerSecond());
+    }
+}
@@ -0,0 +1,69 @@
+package edu.cmu.andrew.mpanindr;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * The CryptoMetrics class holds the process-wide metrics of key generation, encryption and decryption, and publishes
+ * them as JMX MBeans.
+ * <p>
+ * The MBeans are registered with the platform MBean server when the class is first used, under
+ * edu.cmu.andrew.mpanindr:type=CryptoMetrics,operation=KeyGeneration (and Encryption, Decryption), so they can be
+ * browsed with JConsole or Mission Control or scraped by any JMX exporter without further setup. A registration
+ * failure is logged and does not affect recording.
+ * <p>
+ * Instrumented operations:
+ * - KEY_GENERATION: KeyGenerator.generate(); the size is the number of key elements.
+ * - ENCRYPTION: the single-message encrypt() methods of MerkleHellmanKnapsack; the size is the number of message bits.
+ * - DECRYPTION: MerkleHellmanKnapsack.decryptBytes() and everything built on it; the size is the number of key
+ * elements.
+ */
+public final class CryptoMetrics {
+    private static final Logger logger = LoggerFactory.getLogger(CryptoMetrics.class);
+
+    /**
+     * JMX domain of the crypto metrics MBeans.
+     */
+    public static final String DOMAIN = "edu.cmu.andrew.mpanindr";
+
+    public static final OperationMetrics KEY_GENERATION = new OperationMetrics("KeyGeneration");
+    public static final OperationMetrics ENCRYPTION = new OperationMetrics("Encryption");
+    public static final OperationMetrics DECRYPTION = new OperationMetrics("Decryption");
+
+    static {
+        register(KEY_GENERATION);
+        register(ENCRYPTION);
+        register(DECRYPTION);
+    }
+
+    private CryptoMetrics() {
+    }
+
+    /**
+     * Returns the JMX object name under which the metrics of an operation are registered.
+     *
+     * @param metrics The operation metrics.
+     * @return The object name.
+     * @throws JMException If the name is malformed.
+     */
+    public static ObjectName objectName(OperationMetrics metrics) throws JMException {
+        return new ObjectName(DOMAIN + ":type=CryptoMetrics,operation=" + metrics.getName());
+    }
+
+    private static void register(OperationMetrics metrics) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = objectName(metrics);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(metrics, name);
+            }
+        } catch (JMException | SecurityException e) {
+            logger.warn("Could not register JMX metrics for {}", metrics.getName(), e);
+        }
+    }
+}
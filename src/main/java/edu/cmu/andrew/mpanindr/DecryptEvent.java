@@ -0,0 +1,28 @@
+package edu.cmu.andrew.mpanindr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The DecryptEvent class is the JDK Flight Recorder event emitted by MerkleHellmanKnapsack.decryptBytes(), and so by
+ * every decryption built on it. Stack traces are off by default to keep the event cheap on this hot path. Decryption
+ * always recovers one bit per key element, so keySize is also the number of message bits.
+ */
+@Name("edu.cmu.andrew.mpanindr.Decrypt")
+@Label("Knapsack Decrypt")
+@Category("Merkle-Hellman Knapsack")
+@Description("Decryption of one ciphertext with a Merkle-Hellman private key")
+@StackTrace(false)
+final class DecryptEvent extends Event {
+    @Label("Key Size")
+    @Description("Number of private key elements")
+    int keySize;
+
+    @Label("Succeeded")
+    @Description("False when the ciphertext was not a subset sum of the key")
+    boolean succeeded;
+}
@@ -0,0 +1,104 @@
+package edu.cmu.andrew.mpanindr;
+
+import java.math.BigInteger;
+
+/**
+ * The DecryptionContext class holds everything about a private key that can be computed once and reused for every
+ * ciphertext decrypted with it.
+ * <p>
+ * Decryption first has to undo the disguise applied to the super-increasing sequence, c' = (c * r^-1) % q. Computing
+ * r^-1 runs the extended Euclidean algorithm and the final "% q" is a full-width division, and neither depends on the
+ * ciphertext. This class computes r^-1 once, and replaces the division with Barrett reduction: with k = q.bitLength()
+ * and the precomputed constant mu = floor(4^k / q), any 0 <= x < 4^k is reduced with two multiplications, two shifts
+ * and at most two subtractions.
+ * <p>
+ * A ciphertext is a sum of at most n values below q, so it is first reduced to c % q and then multiplied by r^-1; both
+ * inputs to the reduction stay below 4^k as long as the key has fewer elements than q, which always holds for a valid
+ * key. Values outside that range fall back to BigInteger.mod().
+ * <p>
+ * Instances are immutable and can be shared safely across threads.
+ * <p>
+ * Time Complexity:
+ * - Construction costs one modular inverse and one division, O(k^2).
+ * - reduce() and unwrap() cost a constant number of k-bit multiplications.
+ */
+public final class DecryptionContext {
+    private final PrivateKey privateKey;
+    private final BigInteger q;
+    private final BigInteger rInverse;
+    private final BigInteger mu;
+    private final int k;
+
+    /**
+     * Creates a context for the given private key.
+     *
+     * @param privateKey The private key.
+     * @throws ArithmeticException If r is not invertible modulo q.
+     * @pre-condition privateKey is non-null and its r is coprime with q.
+     * @post-condition r^-1 mod q and the Barrett constant for q are cached.
+     * @time-complexity O(k^2) - Where k is the bit length of q.
+     */
+    public DecryptionContext(PrivateKey privateKey) {
+        this.privateKey = privateKey;
+        this.q = privateKey.getQ();
+        this.rInverse = privateKey.getR().modInverse(q);
+        this.k = q.bitLength();
+        this.mu = BigInteger.ONE.shiftLeft(2 * k).divide(q);
+    }
+
+    /**
+     * Returns the private key this context was built for.
+     *
+     * @return The private key.
+     * @time-complexity O(1)
+     */
+    public PrivateKey getPrivateKey() {
+        return privateKey;
+    }
+
+    /**
+     * Returns the cached modular inverse of r.
+     *
+     * @return r^-1 mod q.
+     * @time-complexity O(1)
+     */
+    public BigInteger getRInverse() {
+        return rInverse;
+    }
+
+    /**
+     * Reduces a value modulo q using Barrett reduction.
+     *
+     * @param x The value to reduce.
+     * @return x mod q, in the range [0, q).
+     * @pre-condition None; values that are negative or at least 4^k are handled by BigInteger.mod().
+     * @post-condition The result equals x.mod(q).
+     * @time-complexity O(k^2) - Two k-bit multiplications, with no division.
+     */
+    public BigInteger reduce(BigInteger x) {
+        if (x.signum() < 0 || x.bitLength() > 2 * k) {
+            return x.mod(q);
+        }
+        if (x.compareTo(q) < 0) {
+            return x;
+        }
+        BigInteger estimate = x.shiftRight(k - 1).multiply(mu).shiftRight(k + 1);
+        BigInteger remainder = x.subtract(estimate.multiply(q));
+        // The estimate is at most two below the true quotient
+        while (remainder.compareTo(q) >= 0) {
+            remainder = remainder.subtract(q);
+        }
+        return remainder;
+    }
+
+    /**
+     * Removes the modular disguise from a ciphertext, producing the subset sum over the super-increasing sequence.
+     *
+     * @param cipherText The ciphertext.
+     * @return c' = (cipherText * r^-1) % q.
+     * @time-complexity O(k^2) - Two Barrett reductions and one multiplication.
+     */
+    public BigInteger unwrap(BigInteger cipherText) {
+        return reduce(reduce(cipherText).multiply(rInverse));
+    }
+}
@@ -0,0 +1,27 @@
+package edu.cmu.andrew.mpanindr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The EncryptEvent class is the JDK Flight Recorder event emitted by the single-message encrypt() methods of
+ * MerkleHellmanKnapsack and EncryptionTable. Stack traces are off by default to keep the event cheap on this hot path.
+ */
+@Name("edu.cmu.andrew.mpanindr.Encrypt")
+@Label("Knapsack Encrypt")
+@Category("Merkle-Hellman Knapsack")
+@Description("Encryption of one message with a Merkle-Hellman public key")
+@StackTrace(false)
+final class EncryptEvent extends Event {
+    @Label("Message Bits")
+    @Description("Number of message bits encrypted")
+    long messageBits;
+
+    @Label("Key Size")
+    @Description("Number of public key elements")
+    int keySize;
+}
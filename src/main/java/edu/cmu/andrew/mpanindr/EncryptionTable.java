@@ -0,0 +1,183 @@
+package edu.cmu.andrew.mpanindr;
+
+import java.math.BigInteger;
+
+/**
+ * The EncryptionTable class precomputes partial sums of a public key so that encryption needs one addition per window
+ * of message bits instead of one addition per set bit.
+ * <p>
+ * The key is cut into windows of windowBits consecutive elements. For every window, the table holds the sum of each of
+ * its 2^windowBits subsets, indexed by the bit pattern that selects the subset (most significant bit first, matching
+ * the message bit order). Encrypting then reads the message one window at a time and adds the matching entry.
+ * <p>
+ * The window width trades memory for speed:
+ * - 8 bits: one addition per message byte, 256 entries per byte of key capacity.
+ * - 4 bits: two additions per message byte, 32 entries per byte of key capacity.
+ * <p>
+ * Entries are stored as the little-endian limbs added by LimbAccumulator, so encryption does not allocate per window.
+ * The table is worth building for keys that encrypt many messages; building it costs one addition per entry. Instances
+ * are immutable and can be shared safely across threads.
+ * <p>
+ * Time Complexity:
+ * - Construction is O(n / w * 2^w) additions for a key of n elements and window width w.
+ * - Encrypting m bytes is O(m * 8 / w) additions.
+ */
+public final class EncryptionTable {
+    private final PublicKey publicKey;
+    private final int windowBits;
+    private final int[][][] partialSums;
+    private final int accumulatorCapacity;
+
+    private EncryptionTable(PublicKey publicKey, int windowBits, int[][][] partialSums, int accumulatorCapacity) {
+        this.publicKey = publicKey;
+        this.windowBits = windowBits;
+        this.partialSums = partialSums;
+        this.accumulatorCapacity = accumulatorCapacity;
+    }
+
+    /**
+     * Builds the table for a public key.
+     *
+     * @param publicKey  The public key.
+     * @param windowBits The window width, either 4 or 8.
+     * @return The precomputed table.
+     * @throws IllegalArgumentException If windowBits is neither 4 nor 8.
+     * @pre-condition publicKey is non-null.
+     * @post-condition The key is unchanged.
+     * @time-complexity O(n / w * 2^w) additions.
+     */
+    public static EncryptionTable build(PublicKey publicKey, int windowBits) {
+        if (windowBits != 4 && windowBits != 8) {
+            throw new IllegalArgumentException("Window width must be 4 or 8 bits, not " + windowBits);
+        }
+        int windows = (publicKey.size() + windowBits - 1) / windowBits;
+        int[][][] partialSums = new int[windows][][];
+        BigInteger[] sums = new BigInteger[1 << windowBits];
+        int widest = 0;
+
+        for (int window = 0; window < windows; window++) {
+            int start = window * windowBits;
+            sums[0] = BigInteger.ZERO;
+            for (int pattern = 1; pattern < sums.length; pattern++) {
+                // Extend the subset without the pattern's lowest set bit by that bit's element
+                int lowestBit = Integer.numberOfTrailingZeros(pattern);
+                int index = start + windowBits - 1 - lowestBit;
+                BigInteger rest = sums[pattern & (pattern - 1)];
+                // The last window may extend past the key; those bits can never be set in a valid message
+                sums[pattern] = index < publicKey.size() ? rest.add(publicKey.get(index)) : rest;
+            }
+
+            // Keep only the limb form, which is what the accumulator adds
+            partialSums[window] = new int[sums.length][];
+            for (int pattern = 0; pattern < sums.length; pattern++) {
+                partialSums[window][pattern] = LimbAccumulator.toLimbs(sums[pattern]);
+                widest = Math.max(widest, partialSums[window][pattern].length);
+            }
+        }
+
+        // One extra limb absorbs the carry from adding up to 2^32 entries
+        return new EncryptionTable(publicKey, windowBits, partialSums, widest + 1);
+    }
+
+    /**
+     * Returns the public key the table was built for.
+     *
+     * @return The public key.
+     * @time-complexity O(1)
+     */
+    public PublicKey getPublicKey() {
+        return publicKey;
+    }
+
+    /**
+     * Returns the window width.
+     *
+     * @return 4 or 8.
+     * @time-complexity O(1)
+     */
+    public int getWindowBits() {
+        return windowBits;
+    }
+
+    /**
+     * Encrypts a message given as raw bytes. The result is identical to MerkleHellmanKnapsack.encrypt(message, key).
+     *
+     * @param message The message bytes to be encrypted.
+     * @return A BigInteger representing the ciphertext.
+     * @pre-condition message.length * 8 must be less than or equal to the key size.
+     * @post-condition The message and table remain unchanged.
+     * @time-complexity O(m * 8 / w) - For m message bytes and window width w.
+     */
+    public BigInteger encrypt(byte[] message) {
+        return encrypt(message, 0, message.length);
+    }
+
+    /**
+     * Encrypts a range of a byte array. The result is identical to
+     * MerkleHellmanKnapsack.encrypt(message, offset, length, key).
+     *
+     * @param message The array holding the message bytes.
+     * @param offset  The index of the first message byte.
+     * @param length  The number of message bytes.
+     * @return A BigInteger representing the ciphertext.
+     * @pre-condition The range lies within message, and length * 8 is less than or equal to the key size.
+     * @post-condition The message and table remain unchanged.
+     * @time-complexity O(m * 8 / w) - For m message bytes and window width w. Zero windows are skipped.
+     */
+    public BigInteger encrypt(byte[] message, int offset, int length) {
+        EncryptEvent event = MerkleHellmanKnapsack.beginEncrypt();
+        long start = System.nanoTime();
+        try {
+            MerkleHellmanKnapsack.checkMessageRange(message, offset, length, publicKey.size());
+            LimbAccumulator cipherText = new LimbAccumulator(accumulatorCapacity);
+            accumulate(message, offset, length, cipherText);
+            BigInteger result = cipherText.toBigInteger();
+            MerkleHellmanKnapsack.finishEncrypt(event, start, length * 8L, publicKey.size());
+            return result;
+        } catch (RuntimeException e) {
+            MerkleHellmanKnapsack.failEncrypt();
+            throw e;
+        }
+    }
+
+    /**
+     * Adds the table entries selected by a message range into an accumulator, in place.
+     *
+     * @param message     The array holding the message bytes.
+     * @param offset      The index of the first message byte.
+     * @param length      The number of message bytes.
+     * @param accumulator The accumulator receiving the sum.
+     * @pre-condition The range has been validated with MerkleHellmanKnapsack.checkMessageRange().
+     * @time-complexity O(m * 8 / w) - For m message bytes and window width w.
+     */
+    void accumulate(byte[] message, int offset, int length, LimbAccumulator accumulator) {
+        if (windowBits == 8) {
+            for (int i = 0; i < length; i++) {
+                int bits = message[offset + i] & 0xFF;
+                if (bits != 0) {
+                    accumulator.add(partialSums[i][bits]);
+                }
+            }
+        } else {
+            for (int i = 0; i < length; i++) {
+                int bits = message[offset + i] & 0xFF;
+                if ((bits & 0xF0) != 0) {
+                    accumulator.add(partialSums[2 * i][bits >>> 4]);
+                }
+                if ((bits & 0x0F) != 0) {
+                    accumulator.add(partialSums[2 * i + 1][bits & 0x0F]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of limbs an accumulator needs so that summing table entries never has to grow it.
+     *
+     * @return The accumulator capacity in limbs.
+     * @time-complexity O(1)
+     */
+    int accumulatorCapacity() {
+        return accumulatorCapacity;
+    }
+}
@@ -0,0 +1,246 @@
+package edu.cmu.andrew.mpanindr;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+/**
+ * The HybridStreams class encrypts streams in hybrid mode: the Merkle-Hellman knapsack encrypts only a random AES-256
+ * session key, and the payload is encrypted with AES-GCM from the JDK's JCE provider.
+ * <p>
+ * KnapsackStreams pays one knapsack sum per key-sized block, i.e. a BigInteger addition for every set message bit.
+ * Here the knapsack work is a single 256-bit block per stream, and the bulk data goes through AES-GCM, which is
+ * hardware-accelerated on current JVMs, so throughput is orders of magnitude higher for large payloads.
+ * <p>
+ * Stream format (all integers are big-endian, as written by DataOutputStream):
+ * - Header: the magic number MAGIC.
+ * - Session key: a KnapsackStreams block frame holding the 32-byte session key encrypted with the public key.
+ * - Chunk frames: a flag byte (1 for the last chunk, 0 otherwise), the number of ciphertext bytes, and the AES-GCM
+ * ciphertext of up to CHUNK_SIZE plaintext bytes followed by its 16-byte tag.
+ * <p>
+ * Chunk i is encrypted with the 12-byte nonce 0^4 || i and with i and its flag byte as additional authenticated data.
+ * The session key is fresh for every stream, so the counter alone makes every nonce unique. Authenticating the
+ * counter and the flag means reordered, dropped, or appended chunks fail to decrypt, and a stream that ends without a
+ * last chunk is reported as truncated. Plaintext is only written after its chunk has been authenticated.
+ * <p>
+ * Time Complexity:
+ * - Both directions are O(n) in the number of payload bytes, plus one knapsack operation on a 256-bit block.
+ */
+public final class HybridStreams {
+    /**
+     * Magic number at the start of every hybrid encrypted stream ("MHKH").
+     */
+    public static final int MAGIC = 0x4D484B48;
+    /**
+     * Size of the AES session key in bytes; the public key must have at least SESSION_KEY_BYTES * 8 elements.
+     */
+    public static final int SESSION_KEY_BYTES = 32;
+    /**
+     * Largest number of plaintext bytes in one chunk.
+     */
+    static final int CHUNK_SIZE = 1 << 16;
+
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int TAG_BYTES = 16;
+    private static final int NONCE_BYTES = 12;
+    private static final int LAST_CHUNK = 1;
+    private static final SecureRandom random = new SecureRandom();
+
+    private HybridStreams() {
+    }
+
+    /**
+     * Encrypts everything readable from the input stream under a new session key and writes the hybrid stream to the
+     * output stream.
+     *
+     * @param in        The plaintext source. It is read to the end but not closed.
+     * @param out       The ciphertext sink. It is flushed but not closed.
+     * @param publicKey The public key that encrypts the session key.
+     * @return The number of plaintext bytes encrypted.
+     * @throws IOException If reading or writing fails.
+     * @throws IllegalArgumentException If the public key has fewer than SESSION_KEY_BYTES * 8 elements.
+     * @post-condition out holds a complete hybrid stream.
+     * @time-complexity O(n) - Where n is the number of input bytes. Memory use is O(CHUNK_SIZE).
+     */
+    public static long encrypt(InputStream in, OutputStream out, PublicKey publicKey) throws IOException {
+        if (publicKey.blockSize() < SESSION_KEY_BYTES) {
+            throw new IllegalArgumentException("Public key has " + publicKey.size()
+                    + " elements but hybrid mode needs at least " + SESSION_KEY_BYTES * 8);
+        }
+        byte[] sessionKey = new byte[SESSION_KEY_BYTES];
+        random.nextBytes(sessionKey);
+
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        KnapsackStreams.writeBlock(data, SESSION_KEY_BYTES, MerkleHellmanKnapsack.encrypt(sessionKey, publicKey));
+
+        Cipher cipher = newCipher();
+        SecretKeySpec key = new SecretKeySpec(sessionKey, "AES");
+        Arrays.fill(sessionKey, (byte) 0);
+        byte[] current = new byte[CHUNK_SIZE];
+        byte[] next = new byte[CHUNK_SIZE];
+        byte[] sealed = new byte[CHUNK_SIZE + TAG_BYTES];
+
+        // Read one chunk ahead, so the last chunk can be flagged as such
+        long total = 0;
+        int currentLength = in.readNBytes(current, 0, CHUNK_SIZE);
+        for (long counter = 0; ; counter++) {
+            int nextLength = currentLength == CHUNK_SIZE ? in.readNBytes(next, 0, CHUNK_SIZE) : 0;
+            int flag = nextLength == 0 ? LAST_CHUNK : 0;
+            int sealedLength;
+            try {
+                cipher.init(Cipher.ENCRYPT_MODE, key, parameters(counter));
+                cipher.updateAAD(associatedData(counter, flag));
+                sealedLength = cipher.doFinal(current, 0, currentLength, sealed, 0);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("AES-GCM encryption failed", e);
+            }
+            data.writeByte(flag);
+            data.writeInt(sealedLength);
+            data.write(sealed, 0, sealedLength);
+            total += currentLength;
+            if (flag == LAST_CHUNK) {
+                break;
+            }
+
+            byte[] swap = current;
+            current = next;
+            next = swap;
+            currentLength = nextLength;
+        }
+
+        data.flush();
+        return total;
+    }
+
+    /**
+     * Decrypts a hybrid stream written by encrypt() and writes the recovered plaintext to the output stream.
+     *
+     * @param in         The ciphertext source. It is read up to the last chunk but not closed.
+     * @param out        The plaintext sink. It is flushed but not closed.
+     * @param privateKey The private key matching the public key the stream was encrypted with.
+     * @return The number of plaintext bytes written.
+     * @throws IOException If reading or writing fails, or the stream is malformed, truncated, tampered with, or was
+     *                     written with a different key.
+     * @post-condition out holds the original plaintext, up to the first chunk that failed authentication.
+     * @time-complexity O(n) - Where n is the number of plaintext bytes. Memory use is O(CHUNK_SIZE).
+     */
+    public static long decrypt(InputStream in, OutputStream out, PrivateKey privateKey) throws IOException {
+        return decrypt(in, out, new DecryptionContext(privateKey));
+    }
+
+    /**
+     * Decrypts a hybrid stream written by encrypt() using a decryption context that is shared across streams.
+     *
+     * @param in      The ciphertext source. It is read up to the last chunk but not closed.
+     * @param out     The plaintext sink. It is flushed but not closed.
+     * @param context The decryption context of the private key matching the public key the stream was encrypted with.
+     * @return The number of plaintext bytes written.
+     * @throws IOException If reading or writing fails, or the stream is malformed, truncated, tampered with, or was
+     *                     written with a different key.
+     * @post-condition out holds the original plaintext, up to the first chunk that failed authentication.
+     * @time-complexity O(n) - Where n is the number of plaintext bytes. Memory use is O(CHUNK_SIZE).
+     */
+    public static long decrypt(InputStream in, OutputStream out, DecryptionContext context) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        long total = 0;
+        try {
+            if (data.readInt() != MAGIC) {
+                throw new IOException("Not a hybrid Merkle-Hellman encrypted stream");
+            }
+            SecretKeySpec key = readSessionKey(data, context);
+
+            Cipher cipher = newCipher();
+            byte[] sealed = new byte[CHUNK_SIZE + TAG_BYTES];
+            byte[] plain = new byte[CHUNK_SIZE];
+            for (long counter = 0; ; counter++) {
+                int flag = data.readUnsignedByte();
+                int sealedLength = data.readInt();
+                if ((flag != 0 && flag != LAST_CHUNK) || sealedLength < TAG_BYTES || sealedLength > sealed.length) {
+                    throw new IOException("Invalid chunk frame after " + total + " plaintext bytes");
+                }
+                data.readFully(sealed, 0, sealedLength);
+
+                int plainLength;
+                try {
+                    cipher.init(Cipher.DECRYPT_MODE, key, parameters(counter));
+                    cipher.updateAAD(associatedData(counter, flag));
+                    plainLength = cipher.doFinal(sealed, 0, sealedLength, plain, 0);
+                } catch (AEADBadTagException e) {
+                    throw new IOException("Chunk " + counter + " failed authentication", e);
+                } catch (GeneralSecurityException e) {
+                    throw new IllegalStateException("AES-GCM decryption failed", e);
+                }
+                out.write(plain, 0, plainLength);
+                total += plainLength;
+                if (flag == LAST_CHUNK) {
+                    break;
+                }
+            }
+        } catch (EOFException e) {
+            throw new IOException("Encrypted stream is truncated", e);
+        }
+
+        out.flush();
+        return total;
+    }
+
+    /**
+     * Reads the session key frame and decrypts the session key with the knapsack private key.
+     *
+     * @param data    The framed input, positioned after the magic number.
+     * @param context The decryption context of the private key.
+     * @return The AES session key.
+     * @throws IOException If the frame is malformed or the session key does not decrypt.
+     * @time-complexity O(k) - Where k is the number of private key elements.
+     */
+    private static SecretKeySpec readSessionKey(DataInputStream data, DecryptionContext context) throws IOException {
+        PrivateKey privateKey = context.getPrivateKey();
+        if (privateKey.blockSize() < SESSION_KEY_BYTES) {
+            throw new IOException("Private key has " + privateKey.size()
+                    + " elements but hybrid mode needs at least " + SESSION_KEY_BYTES * 8);
+        }
+        if (data.readInt() != SESSION_KEY_BYTES) {
+            throw new IOException("Invalid session key frame");
+        }
+        BigInteger wrapped = KnapsackStreams.readCipherText(data, KnapsackStreams.maxCipherBytes(privateKey));
+        byte[] sessionKey;
+        try {
+            sessionKey = MerkleHellmanKnapsack.decryptBytes(wrapped, context);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Corrupt session key; the stream was encrypted with a different key", e);
+        }
+        SecretKeySpec key = new SecretKeySpec(sessionKey, 0, SESSION_KEY_BYTES, "AES");
+        Arrays.fill(sessionKey, (byte) 0);
+        return key;
+    }
+
+    private static Cipher newCipher() {
+        try {
+            return Cipher.getInstance(TRANSFORMATION);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(TRANSFORMATION + " is required to be available", e);
+        }
+    }
+
+    private static GCMParameterSpec parameters(long counter) {
+        byte[] nonce = ByteBuffer.allocate(NONCE_BYTES).putLong(NONCE_BYTES - Long.BYTES, counter).array();
+        return new GCMParameterSpec(TAG_BYTES * 8, nonce);
+    }
+
+    private static byte[] associatedData(long counter, int flag) {
+        return ByteBuffer.allocate(Long.BYTES + 1).putLong(counter).put((byte) flag).array();
+    }
+}
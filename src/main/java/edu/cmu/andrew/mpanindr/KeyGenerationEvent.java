@@ -0,0 +1,29 @@
+package edu.cmu.andrew.mpanindr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The KeyGenerationEvent class is the JDK Flight Recorder event emitted by KeyGenerator.generate(). Its duration
+ * covers the whole generation, including the prime search for q.
+ */
+@Name("edu.cmu.andrew.mpanindr.KeyGeneration")
+@Label("Knapsack Key Generation")
+@Category("Merkle-Hellman Knapsack")
+@Description("Generation of a Merkle-Hellman key pair")
+final class KeyGenerationEvent extends Event {
+    @Label("Key Size")
+    @Description("Number of key elements, i.e. the message bits the key can encrypt")
+    int keySize;
+
+    @Label("Modulus Bits")
+    @Description("Bit length of the modulus q")
+    int modulusBits;
+
+    @Label("Coprimality Retries")
+    @Description("Multiplier draws rejected before r was accepted; q is prime, so only out-of-range draws are rejected")
+    int coprimeRetries;
+}
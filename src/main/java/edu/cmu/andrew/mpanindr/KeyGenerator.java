@@ -0,0 +1,189 @@
+package edu.cmu.andrew.mpanindr;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.Random;
+
+/**
+ * The KeyGenerator class generates Merkle-Hellman key pairs that are guaranteed to decrypt correctly.
+ * <p>
+ * The original key generation drew q and r as independent random numbers, retried r until gcd(r, q) = 1, and never
+ * checked that q exceeds the sum of the super-increasing sequence. When it did not, decryption silently produced the
+ * wrong message.
+ * <p>
+ * This generator instead picks q as the first probable prime above a random value just beyond sum(w). Since q is prime,
+ * every r in [2, q - 1] is coprime with q, so r is drawn once with no gcd loop, and q > sum(w) holds by construction.
+ * Generation time is therefore predictable: one pass over the sequence, one prime search and n multiplications for the
+ * public key.
+ * <p>
+ * Time Complexity:
+ * - O(n) big-integer additions and multiplications for n elements, plus one nextProbablePrime() on a number of about
+ * the same size as sum(w).
+ */
+public class KeyGenerator {
+    /**
+     * Total bit budget spread over the random terms of the sequence, matching the original key generation.
+     */
+    public static final int BIT_LENGTH = 640;
+    /**
+     * Smallest random term generate(int) gives an element. Once BIT_LENGTH / numberOfBits falls below it, the terms would
+     * shrink towards one bit (w_i = 2^i, which makes b_0 = r public), so generate(int) switches to exact terms of this
+     * size instead.
+     */
+    public static final int MIN_TERM_BITS = 32;
+
+    private final Random random;
+
+    /**
+     * Creates a generator backed by a new SecureRandom.
+     *
+     * @post-condition The generator is ready for use.
+     * @time-complexity O(1)
+     */
+    public KeyGenerator() {
+        this(new SecureRandom());
+    }
+
+    /**
+     * Creates a generator backed by the given source of randomness.
+     *
+     * @param random The source of randomness; a SecureRandom should be used outside of tests.
+     * @pre-condition random is non-null.
+     * @post-condition The generator is ready for use.
+     * @time-complexity O(1)
+     */
+    public KeyGenerator(Random random) {
+        if (random == null) {
+            throw new IllegalArgumentException("random must not be null");
+        }
+        this.random = random;
+    }
+
+    /**
+     * Generates a key pair able to encrypt a message of the given number of bits. The random term of each element has a
+     * floor of MIN_TERM_BITS (32) bits, which splits keys into two regimes:
+     * - Up to BIT_LENGTH / MIN_TERM_BITS (20) elements, the original BIT_LENGTH budget is spread over the terms: each
+     * is drawn uniformly from [1, 2^(BIT_LENGTH / numberOfBits)], so q has about BIT_LENGTH / numberOfBits +
+     * numberOfBits bits.
+     * - Above 20 elements, which covers every key longer than two bytes, the key is generate(numberOfBits,
+     * MIN_TERM_BITS): every term has exactly 32 bits, element i has 32 + i or 33 + i bits, and q and each ciphertext
+     * have about 32 + numberOfBits bits. Before the floor the budget shrank the terms towards one bit instead, so these
+     * keys and their ciphertexts are now somewhat larger but keep 32 bits of randomness per element.
+     *
+     * @param numberOfBits The number of elements in the key, i.e. the number of message bits it can encrypt.
+     * @return A new key pair with a prime modulus q > sum(w) and a multiplier r in [2, q - 1].
+     * @pre-condition numberOfBits is non-negative.
+     * @post-condition The returned key decrypts every message of at most numberOfBits bits correctly.
+     * @time-complexity See the class description.
+     */
+    public KeyPair generate(int numberOfBits) {
+        int termBits = numberOfBits <= 0 ? 0 : BIT_LENGTH / numberOfBits;
+        if (numberOfBits > 0 && termBits < MIN_TERM_BITS) {
+            return generate(numberOfBits, MIN_TERM_BITS, true);
+        }
+        return generate(numberOfBits, termBits, false);
+    }
+
+    /**
+     * Generates a key pair with a controlled bit budget. Each w_i is the sum of the previous elements plus a random term
+     * of exactly elementBits bits, i.e. a term in [2^(elementBits - 1), 2^elementBits).
+     * <p>
+     * A super-increasing sequence must at least double at every step, so its elements cannot all share one size; what
+     * this mode bounds is the growth beyond that doubling. Element i always has elementBits + i or elementBits + i + 1
+     * bits, q has at most elementBits + numberOfBits + 2 bits, and a ciphertext has at most that plus log2(numberOfBits)
+     * bits. Every element keeps elementBits bits of randomness however long the message is.
+     *
+     * @param numberOfBits The number of elements in the key, i.e. the number of message bits it can encrypt.
+     * @param elementBits  The size in bits of the random term added to each element.
+     * @return A new key pair with a prime modulus q > sum(w) and a multiplier r in [2, q - 1].
+     * @throws IllegalArgumentException If numberOfBits is negative or elementBits is not positive.
+     * @pre-condition numberOfBits is non-negative and elementBits is positive.
+     * @post-condition The returned key decrypts every message of at most numberOfBits bits correctly.
+     * @time-complexity See the class description.
+     */
+    public KeyPair generate(int numberOfBits, int elementBits) {
+        return generate(numberOfBits, elementBits, true);
+    }
+
+    /**
+     * Generates the key pair and records metrics and a flight recorder event for it.
+     *
+     * @param numberOfBits The number of elements in the key.
+     * @param termBits     The size in bits of the random term added to each element.
+     * @param exactTerms   true to draw terms with exactly termBits bits, false to draw them uniformly from
+     *                     [1, 2^termBits] as generate(int) does for short keys.
+     * @return A new key pair.
+     * @time-complexity See the class description.
+     */
+    private KeyPair generate(int numberOfBits, int termBits, boolean exactTerms) {
+        KeyGenerationEvent event = new KeyGenerationEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            if (numberOfBits < 0) {
+                throw new IllegalArgumentException("numberOfBits must not be negative");
+            }
+            if (exactTerms && termBits < 1) {
+                throw new IllegalArgumentException("elementBits must be positive");
+            }
+
+            // Generate the super-increasing sequence w
+            BigInteger[] w = new BigInteger[numberOfBits];
+            BigInteger sum = BigInteger.ZERO;
+            for (int i = 0; i < numberOfBits; i++) {
+                // Ensure that the next value is greater than the sum of all previous values
+                BigInteger term = exactTerms
+                        ? new BigInteger(termBits - 1, random).setBit(termBits - 1)
+                        : new BigInteger(termBits, random).add(BigInteger.ONE);
+                w[i] = sum.add(term);
+                sum = sum.add(w[i]);
+            }
+
+            BigInteger q = chooseModulus(sum);
+            BigInteger r = chooseMultiplier(q, event);
+            KeyPair keyPair = new KeyPair(new PrivateKey(w, r, q));
+            CryptoMetrics.KEY_GENERATION.recordSuccess(numberOfBits, System.nanoTime() - start);
+            event.keySize = numberOfBits;
+            event.modulusBits = q.bitLength();
+            event.commit();
+            return keyPair;
+        } catch (RuntimeException e) {
+            CryptoMetrics.KEY_GENERATION.recordError();
+            throw e;
+        }
+    }
+
+    /**
+     * Picks a prime modulus above the sum of the sequence. A random offset of up to the sum's own bit length is added
+     * first, so q is not simply the next prime after sum(w).
+     *
+     * @param sum The sum of the super-increasing sequence.
+     * @return A probable prime q > sum.
+     * @time-complexity One nextProbablePrime() call.
+     */
+    BigInteger chooseModulus(BigInteger sum) {
+        BigInteger offset = new BigInteger(Math.max(1, sum.bitLength()), random);
+        return sum.add(offset).add(BigInteger.ONE).nextProbablePrime();
+    }
+
+    /**
+     * Picks a multiplier uniformly from [2, q - 1]. As q is prime, every such value is coprime with it.
+     *
+     * @param q     The prime modulus.
+     * @param event The flight recorder event that counts rejected draws.
+     * @return A multiplier r with gcd(r, q) = 1.
+     * @time-complexity Expected O(1) draws.
+     */
+    BigInteger chooseMultiplier(BigInteger q, KeyGenerationEvent event) {
+        BigInteger range = q.subtract(BigInteger.TWO);  // Number of values in [2, q - 1]
+        if (range.signum() <= 0) {
+            return BigInteger.ONE;  // q is 2, so 1 is the only unit
+        }
+        BigInteger candidate = new BigInteger(range.bitLength(), random);
+        while (candidate.compareTo(range) >= 0) {
+            event.coprimeRetries++;
+            candidate = new BigInteger(range.bitLength(), random);
+        }
+        return candidate.add(BigInteger.TWO);
+    }
+}
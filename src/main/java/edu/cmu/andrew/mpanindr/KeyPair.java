@@ -0,0 +1,68 @@
+package edu.cmu.andrew.mpanindr;
+
+/**
+ * The KeyPair class bundles a Merkle-Hellman private key with the public key derived from it.
+ * <p>
+ * Both halves are immutable, so a KeyPair can be shared across threads and reused for any number of encryptions and
+ * decryptions.
+ * <p>
+ * Time Complexity:
+ * - Construction from a private key alone is O(n), since the public key has to be derived.
+ * - The accessors are O(1).
+ */
+public final class KeyPair {
+    private final PublicKey publicKey;
+    private final PrivateKey privateKey;
+
+    /**
+     * Creates a key pair from a private key, deriving the public key from it.
+     *
+     * @param privateKey The private key.
+     * @pre-condition privateKey is non-null.
+     * @post-condition The key pair holds privateKey and its derived public key.
+     * @time-complexity O(n) - See PrivateKey.publicKey().
+     */
+    public KeyPair(PrivateKey privateKey) {
+        this(privateKey.publicKey(), privateKey);
+    }
+
+    /**
+     * Creates a key pair from an already derived public key and its private key.
+     *
+     * @param publicKey  The public key.
+     * @param privateKey The matching private key.
+     * @pre-condition Both keys are non-null and publicKey was derived from privateKey.
+     * @post-condition The key pair holds both keys as given.
+     * @time-complexity O(1)
+     */
+    public KeyPair(PublicKey publicKey, PrivateKey privateKey) {
+        if (publicKey == null || privateKey == null) {
+            throw new IllegalArgumentException("Keys must not be null");
+        }
+        if (publicKey.size() != privateKey.size()) {
+            throw new IllegalArgumentException("Public and private keys have different sizes");
+        }
+        this.publicKey = publicKey;
+        this.privateKey = privateKey;
+    }
+
+    /**
+     * Returns the public key.
+     *
+     * @return The public key.
+     * @time-complexity O(1)
+     */
+    public PublicKey getPublicKey() {
+        return publicKey;
+    }
+
+    /**
+     * Returns the private key.
+     *
+     * @return The private key.
+     * @time-complexity O(1)
+     */
+    public PrivateKey getPrivateKey() {
+        return privateKey;
+    }
+}
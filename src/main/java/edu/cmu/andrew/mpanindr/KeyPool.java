@@ -0,0 +1,209 @@
+package edu.cmu.andrew.mpanindr;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The KeyPool class keeps ready-made key pairs for each message size, so callers do not pay the full key-generation
+ * cost on the request path.
+ * <p>
+ * Every registered size has its own bounded queue of key pairs. A background thread fills each queue up to the high-water
+ * mark, and whenever a take() leaves a queue below the low-water mark, that size is scheduled for another refill. When
+ * a queue is empty, take() falls back to generating a key inline, so callers never block on the refill thread.
+ * <p>
+ * The pool counts hits (served from a queue), misses (generated inline) and refills (generated in the background).
+ * Sizes that are requested but were not registered up front are registered on their first miss.
+ * <p>
+ * Usage:
+ * - Create the pool, call start() once, and call close() to stop the background thread.
+ * <p>
+ * Time Complexity:
+ * - take() is O(1) on a hit. On a miss it costs one key generation (see KeyGenerator).
+ */
+public class KeyPool implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(KeyPool.class);
+
+    private final KeyGenerator generator;
+    private final int lowWater;
+    private final int highWater;
+    private final Map<Integer, BlockingQueue<KeyPair>> pools = new ConcurrentHashMap<>();
+    private final Map<Integer, AtomicBoolean> refillPending = new ConcurrentHashMap<>();
+    private final BlockingQueue<Integer> refillRequests = new LinkedBlockingQueue<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong refills = new AtomicLong();
+    private final Thread refillThread;
+    private volatile boolean running;
+
+    /**
+     * Creates a pool for the given message sizes. The background thread is not started until start() is called.
+     *
+     * @param generator    The key generator used both in the background and for misses.
+     * @param lowWater     The queue length below which a size is scheduled for refilling.
+     * @param highWater    The queue length the refill thread fills each size up to.
+     * @param messageSizes The message sizes, in bits, to keep keys for.
+     * @pre-condition generator is non-null and 0 <= lowWater < highWater.
+     * @post-condition Each size is registered with an empty queue and scheduled for an initial fill.
+     * @time-complexity O(s) - Where s is the number of sizes.
+     */
+    public KeyPool(KeyGenerator generator, int lowWater, int highWater, int... messageSizes) {
+        if (generator == null) {
+            throw new IllegalArgumentException("generator must not be null");
+        }
+        if (lowWater < 0 || highWater <= lowWater) {
+            throw new IllegalArgumentException("Water marks must satisfy 0 <= lowWater < highWater");
+        }
+        this.generator = generator;
+        this.lowWater = lowWater;
+        this.highWater = highWater;
+        for (int size : messageSizes) {
+            register(size);
+        }
+        refillThread = new Thread(this::refillLoop, "key-pool-refill");
+        refillThread.setDaemon(true);
+    }
+
+    /**
+     * Starts the background refill thread.
+     *
+     * @pre-condition start() has not been called before.
+     * @post-condition Registered sizes are filled up to the high-water mark in the background.
+     * @time-complexity O(1)
+     */
+    public void start() {
+        running = true;
+        refillThread.start();
+    }
+
+    /**
+     * Returns a key pair for the given message size, from the pool if one is ready.
+     *
+     * @param numberOfBits The message size in bits.
+     * @return A key pair with numberOfBits elements. Each key pair is handed out only once.
+     * @pre-condition numberOfBits is non-negative.
+     * @post-condition If the queue dropped below the low-water mark, the size is scheduled for refilling.
+     * @time-complexity O(1) on a hit; one key generation on a miss.
+     */
+    public KeyPair take(int numberOfBits) {
+        BlockingQueue<KeyPair> pool = register(numberOfBits);
+        KeyPair keyPair = pool.poll();
+        if (pool.size() < lowWater || keyPair == null) {
+            requestRefill(numberOfBits);
+        }
+        if (keyPair != null) {
+            hits.incrementAndGet();
+            return keyPair;
+        }
+        misses.incrementAndGet();
+        return generator.generate(numberOfBits);
+    }
+
+    /**
+     * Returns the number of ready key pairs for the given message size.
+     *
+     * @param numberOfBits The message size in bits.
+     * @return The number of key pairs currently queued, or 0 if the size is not registered.
+     * @time-complexity O(1)
+     */
+    public int available(int numberOfBits) {
+        BlockingQueue<KeyPair> pool = pools.get(numberOfBits);
+        return pool == null ? 0 : pool.size();
+    }
+
+    /**
+     * Returns the number of take() calls served from the pool.
+     *
+     * @return The hit count.
+     * @time-complexity O(1)
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Returns the number of take() calls that had to generate a key inline.
+     *
+     * @return The miss count.
+     * @time-complexity O(1)
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Returns the number of key pairs generated by the background thread.
+     *
+     * @return The refill count.
+     * @time-complexity O(1)
+     */
+    public long getRefills() {
+        return refills.get();
+    }
+
+    /**
+     * Stops the background refill thread and waits for it to finish its current key.
+     *
+     * @post-condition No further keys are generated in the background. take() keeps working, serving the remaining
+     * keys and then generating inline.
+     * @time-complexity At most one key generation, while the thread finishes.
+     */
+    @Override
+    public void close() {
+        running = false;
+        refillThread.interrupt();
+        try {
+            refillThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private BlockingQueue<KeyPair> register(int numberOfBits) {
+        if (numberOfBits < 0) {
+            throw new IllegalArgumentException("numberOfBits must not be negative");
+        }
+        BlockingQueue<KeyPair> pool = pools.get(numberOfBits);
+        if (pool != null) {
+            return pool;
+        }
+        pool = pools.computeIfAbsent(numberOfBits, size -> new ArrayBlockingQueue<>(highWater));
+        requestRefill(numberOfBits);
+        return pool;
+    }
+
+    private void requestRefill(int numberOfBits) {
+        // Only one outstanding request per size; the refill thread clears the flag before filling
+        AtomicBoolean pending = refillPending.computeIfAbsent(numberOfBits, size -> new AtomicBoolean());
+        if (pending.compareAndSet(false, true)) {
+            refillRequests.add(numberOfBits);
+        }
+    }
+
+    private void refillLoop() {
+        while (running) {
+            try {
+                int numberOfBits = refillRequests.take();
+                refillPending.get(numberOfBits).set(false);
+                BlockingQueue<KeyPair> pool = pools.get(numberOfBits);
+                while (running && pool.size() < highWater) {
+                    if (!pool.offer(generator.generate(numberOfBits))) {
+                        break;  // Filled concurrently by another producer
+                    }
+                    refills.incrementAndGet();
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Key pool refill failed", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package edu.cmu.andrew.mpanindr;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The KeyRegistry class is a thread-safe, shared store of named key pairs for the encryption service.
+ * <p>
+ * Along with each key pair, the registry keeps the DecryptionContext built for its private key, so requests that
+ * decrypt with the same key share the precomputed modular inverse and reduction constants.
+ * <p>
+ * Time Complexity:
+ * - register() costs one DecryptionContext construction; lookups are O(1) on average.
+ */
+public class KeyRegistry {
+    private final Map<String, Entry> keys = new ConcurrentHashMap<>();
+
+    /**
+     * Registers a key pair under the given identifier, replacing any key previously registered under it.
+     *
+     * @param keyId   The identifier clients use to select the key.
+     * @param keyPair The key pair.
+     * @pre-condition keyId and keyPair are non-null.
+     * @post-condition Subsequent lookups of keyId return keyPair.
+     * @time-complexity One DecryptionContext construction.
+     */
+    public void register(String keyId, KeyPair keyPair) {
+        if (keyId == null || keyPair == null) {
+            throw new IllegalArgumentException("keyId and keyPair must not be null");
+        }
+        keys.put(keyId, new Entry(keyPair, new DecryptionContext(keyPair.getPrivateKey())));
+    }
+
+    /**
+     * Removes the key registered under the given identifier.
+     *
+     * @param keyId The identifier of the key.
+     * @return true if a key was removed.
+     * @time-complexity O(1) on average.
+     */
+    public boolean remove(String keyId) {
+        return keys.remove(keyId) != null;
+    }
+
+    /**
+     * Returns the public key registered under the given identifier.
+     *
+     * @param keyId The identifier of the key.
+     * @return The public key, or null if no key is registered under keyId.
+     * @time-complexity O(1) on average.
+     */
+    public PublicKey publicKey(String keyId) {
+        Entry entry = keys.get(keyId);
+        return entry == null ? null : entry.keyPair.getPublicKey();
+    }
+
+    /**
+     * Returns the shared decryption context for the key registered under the given identifier.
+     *
+     * @param keyId The identifier of the key.
+     * @return The decryption context, or null if no key is registered under keyId.
+     * @time-complexity O(1) on average.
+     */
+    public DecryptionContext decryptionContext(String keyId) {
+        Entry entry = keys.get(keyId);
+        return entry == null ? null : entry.context;
+    }
+
+    private static final class Entry {
+        private final KeyPair keyPair;
+        private final DecryptionContext context;
+
+        private Entry(KeyPair keyPair, DecryptionContext context) {
+            this.keyPair = keyPair;
+            this.context = context;
+        }
+    }
+}
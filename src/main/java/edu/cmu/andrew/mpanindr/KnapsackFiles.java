@@ -0,0 +1,135 @@
+package edu.cmu.andrew.mpanindr;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The KnapsackFiles class encrypts and decrypts whole files with keys stored as MappedKeyFile key files.
+ * <p>
+ * Encryption maps the input file with FileChannel.map() and encrypts it block by block straight from the mapped pages,
+ * so the plaintext is never copied into Strings or byte arrays. The input is mapped in windows of at most
+ * MAP_WINDOW_BYTES (rounded down to whole blocks), so files larger than a single mapping can hold are supported.
+ * Ciphertext is written through a buffered stream on the output file's channel. The output uses the KnapsackStreams
+ * format, so files can be decrypted here or with KnapsackStreams.decrypt().
+ * <p>
+ * Key files are opened through MappedKeyFile, but every block uses every key element, so the key is decoded in full
+ * once per call (toPublicKey() or toPrivateKey()) rather than element by element. That one-off O(n * W) cost is small
+ * next to encrypting a file, and it buys the precomputed limbs and decryption context the block loop relies on.
+ * <p>
+ * Time Complexity:
+ * - Both directions are O(n) in the number of file bits.
+ */
+public final class KnapsackFiles {
+    /**
+     * Largest region of the input file mapped at once.
+     */
+    static final int MAP_WINDOW_BYTES = 1 << 28;
+
+    private static final int IO_BUFFER_BYTES = 1 << 16;
+
+    private KnapsackFiles() {
+    }
+
+    /**
+     * Encrypts a file with the public key held in (or derived from) a key file. The key is decoded in full once.
+     *
+     * @param keyFile The key file.
+     * @param input   The plaintext file.
+     * @param output  The ciphertext file, created or replaced.
+     * @return The number of plaintext bytes encrypted.
+     * @throws IOException If a file cannot be read or written.
+     * @post-condition output holds the complete encrypted stream.
+     * @time-complexity O(n) - Where n is the number of input bits.
+     */
+    public static long encryptFile(Path keyFile, Path input, Path output) throws IOException {
+        return encryptFile(MappedKeyFile.open(keyFile).toPublicKey(), input, output);
+    }
+
+    /**
+     * Encrypts a file with the given public key.
+     *
+     * @param publicKey The public key; it must cover at least one byte (8 elements).
+     * @param input     The plaintext file.
+     * @param output    The ciphertext file, created or replaced.
+     * @return The number of plaintext bytes encrypted.
+     * @throws IOException If a file cannot be read or written.
+     * @post-condition output holds the complete encrypted stream.
+     * @time-complexity O(n) - Where n is the number of input bits.
+     */
+    public static long encryptFile(PublicKey publicKey, Path input, Path output) throws IOException {
+        int blockSize = publicKey.blockSize();
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Public key is too small to encrypt a single byte");
+        }
+        long windowBytes = (long) Math.max(1, MAP_WINDOW_BYTES / blockSize) * blockSize;
+
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel outChannel = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                     StandardOpenOption.TRUNCATE_EXISTING);
+             DataOutputStream out = new DataOutputStream(
+                     new BufferedOutputStream(Channels.newOutputStream(outChannel), IO_BUFFER_BYTES))) {
+            long size = in.size();
+            KnapsackStreams.writeHeader(out, blockSize);
+
+            for (long position = 0; position < size; position += windowBytes) {
+                int mapped = (int) Math.min(windowBytes, size - position);
+                MappedByteBuffer window = in.map(FileChannel.MapMode.READ_ONLY, position, mapped);
+                for (int offset = 0; offset < mapped; offset += blockSize) {
+                    int length = Math.min(blockSize, mapped - offset);
+                    KnapsackStreams.writeBlock(out, length,
+                            MerkleHellmanKnapsack.encrypt(window, offset, length, publicKey));
+                }
+            }
+
+            KnapsackStreams.writeTrailer(out);
+            return size;
+        }
+    }
+
+    /**
+     * Decrypts a file written by encryptFile() with the private key held in a key file. The key is decoded in full
+     * once.
+     *
+     * @param keyFile The private key file.
+     * @param input   The ciphertext file.
+     * @param output  The plaintext file, created or replaced.
+     * @return The number of plaintext bytes written.
+     * @throws IOException If a file cannot be read or written, or the ciphertext is malformed.
+     * @throws IllegalStateException If keyFile holds a public key.
+     * @post-condition output holds the original plaintext.
+     * @time-complexity O(n) - Where n is the number of plaintext bits.
+     */
+    public static long decryptFile(Path keyFile, Path input, Path output) throws IOException {
+        return decryptFile(new DecryptionContext(MappedKeyFile.open(keyFile).toPrivateKey()), input, output);
+    }
+
+    /**
+     * Decrypts a file written by encryptFile() with the given decryption context.
+     *
+     * @param context The decryption context of the private key.
+     * @param input   The ciphertext file.
+     * @param output  The plaintext file, created or replaced.
+     * @return The number of plaintext bytes written.
+     * @throws IOException If a file cannot be read or written, or the ciphertext is malformed.
+     * @post-condition output holds the original plaintext.
+     * @time-complexity O(n) - Where n is the number of plaintext bits.
+     */
+    public static long decryptFile(DecryptionContext context, Path input, Path output) throws IOException {
+        try (FileChannel inChannel = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel outChannel = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                     StandardOpenOption.TRUNCATE_EXISTING);
+             InputStream in = new BufferedInputStream(Channels.newInputStream(inChannel), IO_BUFFER_BYTES);
+             OutputStream out = new BufferedOutputStream(Channels.newOutputStream(outChannel), IO_BUFFER_BYTES)) {
+            return KnapsackStreams.decrypt(in, out, context);
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package edu.cmu.andrew.mpanindr;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * The KnapsackService class is an embeddable local HTTP service that encrypts and decrypts requests with keys from a
+ * shared KeyRegistry.
+ * <p>
+ * It is built on the JDK's HttpServer, with every exchange handled on its own virtual thread, so thousands of
+ * concurrent small requests do not need a platform thread each. A semaphore caps the number of requests processed at
+ * once; requests beyond the cap are rejected immediately with 503 rather than queued. The cap is separate from the TCP
+ * accept backlog, which bounds the connections the operating system queues before the server accepts them.
+ * <p>
+ * Endpoints (POST only, raw bytes in and out):
+ * - /encrypt/{keyId}: the body is plaintext of up to maxRequestBytes bytes; the response is the KnapsackStreams
+ * encrypted stream.
+ * - /decrypt/{keyId}: the body is a KnapsackStreams encrypted stream; the response is the plaintext.
+ * <p>
+ * Status codes: 404 for an unknown key or path, 405 for other methods, 413 for bodies above the configured limit, 400
+ * for ciphertext that cannot be decrypted, and 503 when the concurrency limit is reached.
+ * <p>
+ * Time Complexity:
+ * - Each request is O(n) in the number of message bits; see KnapsackStreams.
+ */
+public class KnapsackService implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(KnapsackService.class);
+    private static final String ENCRYPT_PATH = "/encrypt/";
+    private static final String DECRYPT_PATH = "/decrypt/";
+    /**
+     * Largest accepted maxRequestBytes. One extra byte is read to detect oversized bodies, and arrays cannot get much
+     * closer to Integer.MAX_VALUE than this.
+     */
+    static final int MAX_REQUEST_BYTES_LIMIT = Integer.MAX_VALUE - 9;
+
+    private final KeyRegistry registry;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final int maxRequestBytes;
+
+    /**
+     * Creates the service with the system default accept backlog and binds it to the given address. Requests are not
+     * served until start() is called.
+     *
+     * @param registry              The registry that supplies keys by identifier.
+     * @param address               The address to bind to; port 0 picks a free port.
+     * @param maxConcurrentRequests The maximum number of requests processed at once.
+     * @param maxRequestBytes       The maximum accepted request body size, at most MAX_REQUEST_BYTES_LIMIT.
+     * @throws IOException If the address cannot be bound.
+     * @pre-condition registry and address are non-null, both limits are positive, and maxRequestBytes is at most
+     * MAX_REQUEST_BYTES_LIMIT.
+     * @post-condition The server socket is bound.
+     * @time-complexity O(1)
+     */
+    public KnapsackService(KeyRegistry registry, InetSocketAddress address, int maxConcurrentRequests,
+                           int maxRequestBytes) throws IOException {
+        this(registry, address, 0, maxConcurrentRequests, maxRequestBytes);
+    }
+
+    /**
+     * Creates the service and binds it to the given address. Requests are not served until start() is called.
+     *
+     * @param registry              The registry that supplies keys by identifier.
+     * @param address               The address to bind to; port 0 picks a free port.
+     * @param backlog               The maximum number of connections queued for acceptance, or 0 for the system
+     *                              default.
+     * @param maxConcurrentRequests The maximum number of requests processed at once.
+     * @param maxRequestBytes       The maximum accepted request body size, at most MAX_REQUEST_BYTES_LIMIT.
+     * @throws IOException If the address cannot be bound.
+     * @pre-condition registry and address are non-null, backlog is not negative, both limits are positive, and
+     * maxRequestBytes is at most MAX_REQUEST_BYTES_LIMIT.
+     * @post-condition The server socket is bound.
+     * @time-complexity O(1)
+     */
+    public KnapsackService(KeyRegistry registry, InetSocketAddress address, int backlog, int maxConcurrentRequests,
+                           int maxRequestBytes) throws IOException {
+        if (registry == null || address == null) {
+            throw new IllegalArgumentException("registry and address must not be null");
+        }
+        if (maxConcurrentRequests < 1 || maxRequestBytes < 1) {
+            throw new IllegalArgumentException("Limits must be positive");
+        }
+        if (backlog < 0) {
+            throw new IllegalArgumentException("backlog must not be negative");
+        }
+        if (maxRequestBytes > MAX_REQUEST_BYTES_LIMIT) {
+            throw new IllegalArgumentException("maxRequestBytes must be at most " + MAX_REQUEST_BYTES_LIMIT);
+        }
+        this.registry = registry;
+        this.permits = new Semaphore(maxConcurrentRequests);
+        this.maxRequestBytes = maxRequestBytes;
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.server = HttpServer.create(address, backlog);
+        this.server.setExecutor(executor);
+        this.server.createContext(ENCRYPT_PATH, exchange -> handle(exchange, true));
+        this.server.createContext(DECRYPT_PATH, exchange -> handle(exchange, false));
+    }
+
+    /**
+     * Starts serving requests.
+     *
+     * @post-condition The service accepts connections on getPort().
+     * @time-complexity O(1)
+     */
+    public void start() {
+        server.start();
+        logger.info("Knapsack service listening on port {}", getPort());
+    }
+
+    /**
+     * Returns the port the service is bound to.
+     *
+     * @return The local port.
+     * @time-complexity O(1)
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops accepting connections and shuts down the request threads.
+     *
+     * @post-condition The server socket is closed.
+     * @time-complexity Waits for in-flight requests to complete.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.close();
+    }
+
+    /**
+     * Handles one exchange under the concurrency limit, answering 503 when no permit is free and 500 when processing
+     * fails before a response has been started.
+     *
+     * @param exchange The HTTP exchange.
+     * @param encrypt  Whether the exchange arrived on the encrypt endpoint.
+     * @throws IOException If the error response cannot be sent.
+     * @pre-condition exchange was routed to ENCRYPT_PATH or DECRYPT_PATH.
+     * @post-condition A response has been sent, the exchange is closed, and any permit taken has been released.
+     * @time-complexity O(n) - Where n is the number of message bits in the request.
+     */
+    private void handle(HttpExchange exchange, boolean encrypt) throws IOException {
+        if (!permits.tryAcquire()) {
+            sendText(exchange, 503, "Too many concurrent requests");
+            return;
+        }
+        try {
+            process(exchange, encrypt);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Request to {} failed", exchange.getRequestURI(), e);
+            if (exchange.getResponseCode() == -1) {  // Nothing has been sent yet
+                sendText(exchange, 500, "Internal error");
+            }
+        } finally {
+            permits.release();
+            exchange.close();
+        }
+    }
+
+    /**
+     * Reads the request body, encrypts or decrypts it with the key named in the path, and sends the result.
+     *
+     * @param exchange The HTTP exchange.
+     * @param encrypt  Whether to encrypt the body; otherwise it is decrypted.
+     * @throws IOException If the request cannot be read or the response cannot be written.
+     * @pre-condition The caller holds a concurrency permit.
+     * @post-condition A 200 response holding the result, or an error status (405, 413, 404 or 400), has been sent.
+     * @time-complexity O(n) - Where n is the number of message bits in the request.
+     */
+    private void process(HttpExchange exchange, boolean encrypt) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            sendText(exchange, 405, "Only POST is supported");
+            return;
+        }
+        String prefix = encrypt ? ENCRYPT_PATH : DECRYPT_PATH;
+        String keyId = exchange.getRequestURI().getPath().substring(prefix.length());
+
+        byte[] body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = in.readNBytes(maxRequestBytes + 1);
+        }
+        if (body.length > maxRequestBytes) {
+            sendText(exchange, 413, "Request body exceeds " + maxRequestBytes + " bytes");
+            return;
+        }
+
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        if (encrypt) {
+            PublicKey publicKey = registry.publicKey(keyId);
+            if (publicKey == null) {
+                sendText(exchange, 404, "Unknown key " + keyId);
+                return;
+            }
+            KnapsackStreams.encrypt(new ByteArrayInputStream(body), result, publicKey);
+        } else {
+            DecryptionContext context = registry.decryptionContext(keyId);
+            if (context == null) {
+                sendText(exchange, 404, "Unknown key " + keyId);
+                return;
+            }
+            try {
+                KnapsackStreams.decrypt(new ByteArrayInputStream(body), result, context);
+            } catch (IOException e) {
+                sendText(exchange, 400, e.getMessage());
+                return;
+            }
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", "application/octet-stream");
+        exchange.sendResponseHeaders(200, result.size());
+        try (OutputStream out = exchange.getResponseBody()) {
+            result.writeTo(out);
+        }
+    }
+
+    /**
+     * Sends a plain-text response.
+     *
+     * @param exchange The HTTP exchange.
+     * @param status   The HTTP status code.
+     * @param message  The response body.
+     * @throws IOException If the response cannot be written.
+     * @pre-condition No response headers have been sent on the exchange yet.
+     * @post-condition The status and the UTF-8 encoded message have been sent, and the response body is closed.
+     * @time-complexity O(m) - Where m is the length of the message.
+     */
+    private static void sendText(HttpExchange exchange, int status, String message) throws IOException {
+        byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package edu.cmu.andrew.mpanindr;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+
+/**
+ * The KnapsackStreams class encrypts and decrypts streams of arbitrary length with the Merkle-Hellman Knapsack
+ * crypto-system.
+ * <p>
+ * A single knapsack ciphertext can only carry as many message bits as the key has elements, so the input is split into
+ * blocks of key.blockSize() bytes and each block is encrypted on its own. Only one block and one ciphertext are held in
+ * memory at a time, so memory use is bounded by the key size no matter how large the input is. Decryption builds a
+ * single DecryptionContext per stream, so the per-key work is not repeated for every block.
+ * <p>
+ * Stream format (all integers are big-endian, as written by DataOutputStream):
+ * - Header: the magic number MAGIC followed by the block size in bytes.
+ * - Block frames: the number of plaintext bytes in the block (1 .. block size), the number of ciphertext bytes, and
+ * the ciphertext itself as produced by BigInteger.toByteArray().
+ * - Trailer: a frame whose plaintext length is 0, marking the end of the stream so truncation can be detected.
+ * <p>
+ * Time Complexity:
+ * - Both directions are O(n) in the number of message bits; see MerkleHellmanKnapsack.encrypt() and decryptBytes().
+ */
+public final class KnapsackStreams {
+    /**
+     * Magic number at the start of every encrypted stream ("MHK1").
+     */
+    public static final int MAGIC = 0x4D484B31;
+
+    private KnapsackStreams() {
+    }
+
+    /**
+     * Encrypts everything readable from the input stream and writes the framed ciphertext to the output stream.
+     *
+     * @param in        The plaintext source. It is read to the end but not closed.
+     * @param out       The ciphertext sink. It is flushed but not closed.
+     * @param publicKey The public key; it must cover at least one byte (8 elements).
+     * @return The number of plaintext bytes encrypted.
+     * @throws IOException If reading or writing fails.
+     * @pre-condition publicKey.blockSize() is at least 1.
+     * @post-condition out holds a complete encrypted stream, including the header and trailer.
+     * @time-complexity O(n) - Where n is the number of input bits. Memory use is O(key size).
+     */
+    public static long encrypt(InputStream in, OutputStream out, PublicKey publicKey) throws IOException {
+        int blockSize = publicKey.blockSize();
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Public key is too small to encrypt a single byte");
+        }
+        DataOutputStream data = new DataOutputStream(out);
+        writeHeader(data, blockSize);
+
+        byte[] block = new byte[blockSize];
+        long total = 0;
+        int read;
+        while ((read = in.readNBytes(block, 0, blockSize)) > 0) {
+            writeBlock(data, read, MerkleHellmanKnapsack.encrypt(block, 0, read, publicKey));
+            total += read;
+        }
+
+        writeTrailer(data);
+        data.flush();
+        return total;
+    }
+
+    /**
+     * Decrypts a stream written by encrypt() and writes the recovered plaintext to the output stream.
+     *
+     * @param in         The ciphertext source. It is read up to the trailer but not closed.
+     * @param out        The plaintext sink. It is flushed but not closed.
+     * @param privateKey The private key matching the public key the stream was encrypted with.
+     * @return The number of plaintext bytes written.
+     * @throws IOException If reading or writing fails, or the stream is malformed, truncated, or was written with a
+     *                     key of a different size.
+     * @pre-condition in is positioned at the start of a stream written by encrypt().
+     * @post-condition out holds the original plaintext.
+     * @time-complexity O(n) - Where n is the number of plaintext bits. Memory use is O(key size).
+     */
+    public static long decrypt(InputStream in, OutputStream out, PrivateKey privateKey) throws IOException {
+        return decrypt(in, out, new DecryptionContext(privateKey));
+    }
+
+    /**
+     * Decrypts a stream written by encrypt() using a decryption context that is shared across streams.
+     *
+     * @param in      The ciphertext source. It is read up to the trailer but not closed.
+     * @param out     The plaintext sink. It is flushed but not closed.
+     * @param context The decryption context of the private key matching the public key the stream was encrypted with.
+     * @return The number of plaintext bytes written.
+     * @throws IOException If reading or writing fails, or the stream is malformed, truncated, or was written with a
+     *                     key of a different size.
+     * @pre-condition in is positioned at the start of a stream written by encrypt().
+     * @post-condition out holds the original plaintext.
+     * @time-complexity O(n) - Where n is the number of plaintext bits. Memory use is O(key size).
+     */
+    public static long decrypt(InputStream in, OutputStream out, DecryptionContext context) throws IOException {
+        PrivateKey privateKey = context.getPrivateKey();
+        DataInputStream data = new DataInputStream(in);
+        int blockSize = readHeader(data);
+        if (blockSize != privateKey.blockSize()) {
+            throw new IOException("Stream was encrypted with " + blockSize
+                    + "-byte blocks but the private key decrypts " + privateKey.blockSize() + "-byte blocks");
+        }
+        int maxCipherBytes = maxCipherBytes(privateKey);
+
+        long total = 0;
+        try {
+            int plainLength;
+            while ((plainLength = data.readInt()) != 0) {
+                if (plainLength < 0 || plainLength > blockSize) {
+                    throw new IOException("Invalid block length " + plainLength);
+                }
+                BigInteger cipherText = readCipherText(data, maxCipherBytes);
+                byte[] plain;
+                try {
+                    plain = MerkleHellmanKnapsack.decryptBytes(cipherText, context);
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("Corrupt ciphertext after " + total + " plaintext bytes", e);
+                }
+                out.write(plain, 0, plainLength);
+                total += plainLength;
+            }
+        } catch (EOFException e) {
+            throw new IOException("Encrypted stream is truncated", e);
+        }
+
+        out.flush();
+        return total;
+    }
+
+    /**
+     * Writes the stream header.
+     *
+     * @param data      The framed output.
+     * @param blockSize The block size in bytes.
+     * @throws IOException If writing fails.
+     * @time-complexity O(1)
+     */
+    static void writeHeader(DataOutputStream data, int blockSize) throws IOException {
+        data.writeInt(MAGIC);
+        data.writeInt(blockSize);
+    }
+
+    /**
+     * Writes the trailer frame that marks the end of the stream.
+     *
+     * @param data The framed output.
+     * @throws IOException If writing fails.
+     * @time-complexity O(1)
+     */
+    static void writeTrailer(DataOutputStream data) throws IOException {
+        data.writeInt(0);
+    }
+
+    /**
+     * Writes one block frame.
+     *
+     * @param data        The framed output.
+     * @param plainLength The number of plaintext bytes in the block.
+     * @param cipherText  The block's ciphertext.
+     * @throws IOException If writing fails.
+     * @time-complexity O(c) - Where c is the number of ciphertext bytes.
+     */
+    static void writeBlock(DataOutputStream data, int plainLength, BigInteger cipherText) throws IOException {
+        byte[] cipherBytes = cipherText.toByteArray();
+        data.writeInt(plainLength);
+        data.writeInt(cipherBytes.length);
+        data.write(cipherBytes);
+    }
+
+    /**
+     * Reads and validates the stream header.
+     *
+     * @param data The framed input.
+     * @return The block size recorded in the header.
+     * @throws IOException If the header is missing or does not start with MAGIC.
+     * @time-complexity O(1)
+     */
+    static int readHeader(DataInputStream data) throws IOException {
+        try {
+            if (data.readInt() != MAGIC) {
+                throw new IOException("Not a Merkle-Hellman encrypted stream");
+            }
+            return data.readInt();
+        } catch (EOFException e) {
+            throw new IOException("Encrypted stream is truncated", e);
+        }
+    }
+
+    /**
+     * Reads the ciphertext part of a block frame, after its plaintext length.
+     *
+     * @param data           The framed input.
+     * @param maxCipherBytes The largest ciphertext a valid key can produce, used to reject corrupt lengths before
+     *                       allocating.
+     * @return The block's ciphertext.
+     * @throws IOException If the frame is truncated, its length is out of range, or the ciphertext is negative.
+     * @time-complexity O(c) - Where c is the number of ciphertext bytes.
+     */
+    static BigInteger readCipherText(DataInputStream data, int maxCipherBytes) throws IOException {
+        int cipherLength = data.readInt();
+        if (cipherLength < 1 || cipherLength > maxCipherBytes) {
+            throw new IOException("Invalid ciphertext length " + cipherLength);
+        }
+        byte[] cipherBytes = new byte[cipherLength];
+        data.readFully(cipherBytes);
+        BigInteger cipherText = new BigInteger(cipherBytes);
+        if (cipherText.signum() < 0) {
+            throw new IOException("Negative ciphertext in block frame");  // encrypt() only produces non-negative sums
+        }
+        return cipherText;
+    }
+
+    /**
+     * Returns an upper bound on the encoded size of any ciphertext produced by the matching public key. Each b_i is
+     * below q, so a sum of n of them is below n * q.
+     *
+     * @param privateKey The private key.
+     * @return The maximum number of bytes BigInteger.toByteArray() can return for a valid ciphertext.
+     * @time-complexity O(1)
+     */
+    static int maxCipherBytes(PrivateKey privateKey) {
+        int bits = privateKey.getQ().bitLength() + 32 - Integer.numberOfLeadingZeros(privateKey.size());
+        return bits / 8 + 1;
+    }
+}
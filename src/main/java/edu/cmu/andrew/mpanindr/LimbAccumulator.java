@@ -0,0 +1,128 @@
+package edu.cmu.andrew.mpanindr;
+
+import java.math.BigInteger;
+
+/**
+ * The LimbAccumulator class is a mutable, non-negative multi-precision integer used to sum public-key elements.
+ * <p>
+ * BigInteger is immutable, so every cipherText.add(b_i) allocates a new number as large as the key. This accumulator
+ * keeps the running sum in a single int[] of 32-bit limbs (least significant limb first), adds in place with carry
+ * propagation, and only creates a BigInteger once the sum is complete. Addends are passed in the same limb form, which
+ * PublicKey and EncryptionTable precompute once per key.
+ * <p>
+ * Instances are not thread-safe; each thread or call uses its own accumulator, and reset() allows reusing one across
+ * many messages.
+ * <p>
+ * Time Complexity:
+ * - add() is O(L) for an addend of L limbs, plus amortized O(1) for carry propagation.
+ * - toBigInteger() is O(L) for a sum of L limbs.
+ */
+final class LimbAccumulator {
+    private static final long LIMB_MASK = 0xFFFFFFFFL;
+
+    private int[] limbs;
+    private int used;
+
+    /**
+     * Creates an accumulator holding zero.
+     *
+     * @param capacity The number of limbs to preallocate. The accumulator grows if a sum needs more.
+     * @time-complexity O(capacity)
+     */
+    LimbAccumulator(int capacity) {
+        limbs = new int[Math.max(1, capacity)];
+        used = 0;
+    }
+
+    /**
+     * Converts a non-negative BigInteger into little-endian 32-bit limbs.
+     *
+     * @param value The value to convert.
+     * @return The limbs of value, least significant first, with no leading zero limbs.
+     * @throws IllegalArgumentException If value is negative.
+     * @time-complexity O(L) - For a value of L limbs.
+     */
+    static int[] toLimbs(BigInteger value) {
+        if (value.signum() < 0) {
+            throw new IllegalArgumentException("Only non-negative values can be converted to limbs");
+        }
+        int[] result = new int[(value.bitLength() + 31) >>> 5];
+        byte[] bytes = value.toByteArray();  // Big-endian, possibly with a leading sign byte
+        for (int i = 0; i < bytes.length; i++) {
+            int bytePosition = bytes.length - 1 - i;  // Position counted from the least significant byte
+            int limb = bytePosition >>> 2;
+            if (limb < result.length) {
+                result[limb] |= (bytes[i] & 0xFF) << ((bytePosition & 3) << 3);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Resets the accumulator to zero without releasing its storage.
+     *
+     * @post-condition The accumulator holds zero.
+     * @time-complexity O(L) - The previously used limbs are cleared.
+     */
+    void reset() {
+        for (int i = 0; i < used; i++) {
+            limbs[i] = 0;
+        }
+        used = 0;
+    }
+
+    /**
+     * Adds a value, given as little-endian limbs, to the accumulator in place.
+     *
+     * @param addend The limbs of a non-negative value, as produced by toLimbs().
+     * @post-condition The accumulator holds its previous value plus addend. addend is unchanged.
+     * @time-complexity O(L) - For an addend of L limbs, plus amortized O(1) carry propagation.
+     */
+    void add(int[] addend) {
+        if (addend.length + 1 > limbs.length) {
+            grow(addend.length + 1);
+        }
+        long carry = 0;
+        int i = 0;
+        for (; i < addend.length; i++) {
+            carry += (limbs[i] & LIMB_MASK) + (addend[i] & LIMB_MASK);
+            limbs[i] = (int) carry;
+            carry >>>= 32;
+        }
+        for (; carry != 0; i++) {
+            if (i == limbs.length) {
+                grow(limbs.length + 1);
+            }
+            carry += limbs[i] & LIMB_MASK;
+            limbs[i] = (int) carry;
+            carry >>>= 32;
+        }
+        used = Math.max(used, i);
+    }
+
+    /**
+     * Returns the accumulated sum as a BigInteger.
+     *
+     * @return The current value.
+     * @post-condition The accumulator is unchanged.
+     * @time-complexity O(L) - For a sum of L limbs.
+     */
+    BigInteger toBigInteger() {
+        byte[] bytes = new byte[used * 4];
+        for (int i = 0; i < used; i++) {
+            int limb = limbs[i];
+            int position = bytes.length - 4 * (i + 1);
+            bytes[position] = (byte) (limb >>> 24);
+            bytes[position + 1] = (byte) (limb >>> 16);
+            bytes[position + 2] = (byte) (limb >>> 8);
+            bytes[position + 3] = (byte) limb;
+        }
+        return new BigInteger(1, bytes);
+    }
+
+    private void grow(int minimumCapacity) {
+        int[] larger = new int[Math.max(minimumCapacity, limbs.length * 2)];
+        System.arraycopy(limbs, 0, larger, 0, limbs.length);
+        limbs = larger;
+    }
+}
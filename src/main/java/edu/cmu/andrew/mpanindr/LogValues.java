@@ -0,0 +1,96 @@
+package edu.cmu.andrew.mpanindr;
+
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * The LogValues class wraps large values for parameterized logging, so they are only rendered when a log statement is
+ * actually enabled, and are rendered in bounded size.
+ * <p>
+ * Ciphertexts and key elements run to thousands of decimal digits, and BigInteger.toString() is super-linear in the
+ * number of digits. Passing abbreviate(value) as a "{}" argument defers rendering until the logger has passed its level
+ * check. Values of at most MAX_FULL_BITS bits are then printed in full; larger ones are summarized by their bit length,
+ * their leading bytes in hex and a SHA-256 fingerprint, all computed in linear time. Equal values always render the
+ * same, so log lines can still be correlated.
+ * <p>
+ * Time Complexity:
+ * - abbreviate() is O(1); rendering a large value is O(n) in its bit length.
+ */
+public final class LogValues {
+    /**
+     * Largest value, in bits, that is rendered in full (about 77 decimal digits).
+     */
+    public static final int MAX_FULL_BITS = 256;
+
+    private static final int PREFIX_BYTES = 8;
+    private static final int FINGERPRINT_BYTES = 8;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private LogValues() {
+    }
+
+    /**
+     * Wraps a value so that it is rendered lazily and in bounded size.
+     *
+     * @param value The value to log, possibly null.
+     * @return An object whose toString() renders the value as described above.
+     * @time-complexity O(1)
+     */
+    public static Object abbreviate(BigInteger value) {
+        return new Abbreviated(value);
+    }
+
+    /**
+     * Renders a value immediately, as described for abbreviate().
+     *
+     * @param value The value to render, possibly null.
+     * @return The rendering.
+     * @time-complexity O(n) - Where n is the bit length of the value.
+     */
+    static String render(BigInteger value) {
+        if (value == null) {
+            return "null";
+        }
+        int bits = value.bitLength();
+        if (bits <= MAX_FULL_BITS) {
+            return value.toString();
+        }
+
+        byte[] bytes = value.abs().toByteArray();
+        int start = bytes[0] == 0 ? 1 : 0;  // Skip the sign byte toByteArray() may add
+        StringBuilder builder = new StringBuilder(64);
+        builder.append(value.signum() < 0 ? "-0x" : "0x");
+        appendHex(builder, bytes, start, PREFIX_BYTES);
+        builder.append("... (").append(bits).append(" bits, sha256 ");
+        appendHex(builder, sha256(bytes), 0, FINGERPRINT_BYTES);
+        return builder.append(')').toString();
+    }
+
+    private static void appendHex(StringBuilder builder, byte[] bytes, int start, int count) {
+        for (int i = start; i < Math.min(bytes.length, start + count); i++) {
+            builder.append(HEX[(bytes[i] >>> 4) & 0xF]).append(HEX[bytes[i] & 0xF]);
+        }
+    }
+
+    private static byte[] sha256(byte[] bytes) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required to be available", e);
+        }
+    }
+
+    private static final class Abbreviated {
+        private final BigInteger value;
+
+        private Abbreviated(BigInteger value) {
+            this.value = value;
+        }
+
+        @Override
+        public String toString() {
+            return render(value);
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package edu.cmu.andrew.mpanindr;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+
+/**
+ * The MappedKeyFile class stores Merkle-Hellman keys in a compact binary file and opens them through a memory mapping,
+ * decoding individual elements only when they are accessed.
+ * <p>
+ * Opening a key file does no per-element work: the file is mapped with FileChannel.map(), and element(i) decodes w_i or
+ * b_i straight from the mapped bytes the first time it is requested. Several processes opening the same file share its
+ * pages through the operating system's page cache.
+ * <p>
+ * Lazy decoding pays off for callers that only inspect a key or touch a few of its elements. Encrypting or decrypting
+ * touches every element, so bulk callers such as KnapsackFiles decode the whole key once with toPublicKey() or
+ * toPrivateKey(), whose precomputed limbs and context make the per-block work cheaper. The mapping still saves them a
+ * parse of a text format, but the full O(n * W) decode is paid once per call.
+ * <p>
+ * File format (all integers are big-endian):
+ * - Header, 20 bytes: the magic number MAGIC, the format VERSION, the key type (TYPE_PUBLIC or TYPE_PRIVATE), the
+ * element count n, and the element width W in bytes.
+ * - Private keys only: r and then q, each as a W-byte unsigned big-endian number.
+ * - Element table: n elements, each as a W-byte unsigned big-endian number, so element i starts at a fixed offset.
+ * <p>
+ * Private key files are created readable and writable by their owner only on file systems that support POSIX
+ * permissions; an existing file is narrowed to the same permissions before the key is written into it.
+ * <p>
+ * Decoded elements are cached. BigInteger is immutable, so the cache needs no locking and instances can be shared
+ * across threads; a race at worst decodes the same element twice.
+ * <p>
+ * Time Complexity:
+ * - open() is O(1) apart from the mapping itself.
+ * - element(i) is O(W) on first access and O(1) afterwards.
+ * - write() is O(n * W).
+ */
+public final class MappedKeyFile {
+    /**
+     * Magic number at the start of every key file ("MHKF").
+     */
+    public static final int MAGIC = 0x4D484B46;
+    /**
+     * Current file format version.
+     */
+    public static final int VERSION = 1;
+    /**
+     * Key type of a file holding a public key.
+     */
+    public static final int TYPE_PUBLIC = 0;
+    /**
+     * Key type of a file holding a private key.
+     */
+    public static final int TYPE_PRIVATE = 1;
+
+    private static final Set<PosixFilePermission> OWNER_ONLY = PosixFilePermissions.fromString("rw-------");
+
+    private static final int HEADER_BYTES = 20;
+
+    private final ByteBuffer buffer;
+    private final int type;
+    private final int size;
+    private final int width;
+    private final int tableOffset;
+    private final BigInteger[] decoded;
+
+    private MappedKeyFile(ByteBuffer buffer, int type, int size, int width) {
+        this.buffer = buffer;
+        this.type = type;
+        this.size = size;
+        this.width = width;
+        this.tableOffset = HEADER_BYTES + (type == TYPE_PRIVATE ? 2 * width : 0);
+        this.decoded = new BigInteger[size];
+    }
+
+    /**
+     * Writes a public key to a key file, replacing any existing file.
+     *
+     * @param path      The file to write.
+     * @param publicKey The public key.
+     * @throws IOException If the file cannot be written.
+     * @post-condition The file holds the key in the format described above.
+     * @time-complexity O(n * W)
+     */
+    public static void write(Path path, PublicKey publicKey) throws IOException {
+        BigInteger[] elements = new BigInteger[publicKey.size()];
+        for (int i = 0; i < elements.length; i++) {
+            elements[i] = publicKey.get(i);
+        }
+        write(path, TYPE_PUBLIC, new BigInteger[0], elements);
+    }
+
+    /**
+     * Writes a private key to a key file, replacing any existing file. Where the file system supports POSIX
+     * permissions, the file is left readable and writable by its owner only.
+     *
+     * @param path       The file to write.
+     * @param privateKey The private key.
+     * @throws IOException If the file cannot be written.
+     * @post-condition The file holds the key in the format described above, with owner-only permissions where supported.
+     * @time-complexity O(n * W)
+     */
+    public static void write(Path path, PrivateKey privateKey) throws IOException {
+        BigInteger[] elements = new BigInteger[privateKey.size()];
+        for (int i = 0; i < elements.length; i++) {
+            elements[i] = privateKey.get(i);
+        }
+        write(path, TYPE_PRIVATE, new BigInteger[]{privateKey.getR(), privateKey.getQ()}, elements);
+    }
+
+    private static void write(Path path, int type, BigInteger[] parameters, BigInteger[] elements) throws IOException {
+        int widthBits = 1;
+        for (BigInteger value : parameters) {
+            widthBits = Math.max(widthBits, value.bitLength());
+        }
+        for (BigInteger value : elements) {
+            widthBits = Math.max(widthBits, value.bitLength());
+        }
+        int width = (widthBits + 7) / 8;
+        long length = HEADER_BYTES + (long) (parameters.length + elements.length) * width;
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("Key is too large for a single mapped key file");
+        }
+
+        ByteBuffer out = ByteBuffer.allocate((int) length);
+        out.putInt(MAGIC).putInt(VERSION).putInt(type).putInt(elements.length).putInt(width);
+        for (BigInteger value : parameters) {
+            putFixedWidth(out, value, width);
+        }
+        for (BigInteger value : elements) {
+            putFixedWidth(out, value, width);
+        }
+        out.flip();
+
+        Set<OpenOption> options = Set.of(StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        boolean ownerOnly = type == TYPE_PRIVATE && path.getFileSystem().supportedFileAttributeViews().contains("posix");
+        FileAttribute<?>[] attributes = ownerOnly
+                ? new FileAttribute<?>[]{PosixFilePermissions.asFileAttribute(OWNER_ONLY)}
+                : new FileAttribute<?>[0];
+
+        try (FileChannel channel = FileChannel.open(path, options, attributes)) {
+            if (ownerOnly) {
+                // The creation attribute only applies to new files, so narrow a replaced file before writing the key
+                Files.setPosixFilePermissions(path, OWNER_ONLY);
+            }
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+        }
+    }
+
+    /**
+     * Opens a key file by mapping it into memory. No elements are decoded until they are accessed.
+     *
+     * @param path The key file.
+     * @return The mapped key.
+     * @throws IOException If the file cannot be read, is not a key file, or is truncated.
+     * @time-complexity O(1) apart from the mapping itself.
+     */
+    public static MappedKeyFile open(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < HEADER_BYTES || length > Integer.MAX_VALUE) {
+                throw new IOException("Not a Merkle-Hellman key file: " + path);
+            }
+            // The mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+        }
+
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a Merkle-Hellman key file: " + path);
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported key file version " + buffer.getInt(4) + ": " + path);
+        }
+        int type = buffer.getInt(8);
+        int size = buffer.getInt(12);
+        int width = buffer.getInt(16);
+        if ((type != TYPE_PUBLIC && type != TYPE_PRIVATE) || size < 0 || width < 1) {
+            throw new IOException("Corrupt key file header: " + path);
+        }
+        long expected = HEADER_BYTES + ((type == TYPE_PRIVATE ? 2L : 0L) + size) * width;
+        if (buffer.capacity() != expected) {
+            throw new IOException("Key file has " + buffer.capacity() + " bytes but its header requires "
+                    + expected + ": " + path);
+        }
+        return new MappedKeyFile(buffer, type, size, width);
+    }
+
+    /**
+     * Returns whether the file holds a private key.
+     *
+     * @return true for a private key file, false for a public key file.
+     * @time-complexity O(1)
+     */
+    public boolean isPrivate() {
+        return type == TYPE_PRIVATE;
+    }
+
+    /**
+     * Returns the number of elements in the key.
+     *
+     * @return The element count.
+     * @time-complexity O(1)
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns element i of the key: w_i for a private key file, b_i for a public key file.
+     *
+     * @param i The index of the element.
+     * @return The decoded element.
+     * @throws IndexOutOfBoundsException If i is negative or not less than size().
+     * @time-complexity O(W) on first access, O(1) afterwards.
+     */
+    public BigInteger element(int i) {
+        BigInteger value = decoded[i];
+        if (value == null) {
+            value = decode(tableOffset + i * width);
+            decoded[i] = value;
+        }
+        return value;
+    }
+
+    /**
+     * Returns whether element i has already been decoded.
+     *
+     * @param i The index of the element.
+     * @return true if element(i), toPublicKey() or toPrivateKey() has decoded it.
+     * @throws IndexOutOfBoundsException If i is negative or not less than size().
+     * @time-complexity O(1)
+     */
+    boolean isDecoded(int i) {
+        return decoded[i] != null;
+    }
+
+    /**
+     * Returns the multiplier r of a private key file.
+     *
+     * @return r.
+     * @throws IllegalStateException If the file holds a public key.
+     * @time-complexity O(W)
+     */
+    public BigInteger getR() {
+        requirePrivate();
+        return decode(HEADER_BYTES);
+    }
+
+    /**
+     * Returns the modulus q of a private key file.
+     *
+     * @return q.
+     * @throws IllegalStateException If the file holds a public key.
+     * @time-complexity O(W)
+     */
+    public BigInteger getQ() {
+        requirePrivate();
+        return decode(HEADER_BYTES + width);
+    }
+
+    /**
+     * Decodes every element into an in-memory public key.
+     *
+     * @return The public key held by the file, or derived from the private key it holds.
+     * @time-complexity O(n * W), plus O(n) multiplications for a private key file.
+     */
+    public PublicKey toPublicKey() {
+        if (isPrivate()) {
+            return toPrivateKey().publicKey();
+        }
+        return new PublicKey(elements());
+    }
+
+    /**
+     * Decodes every element into an in-memory private key.
+     *
+     * @return The private key held by the file.
+     * @throws IllegalStateException If the file holds a public key.
+     * @time-complexity O(n * W)
+     */
+    public PrivateKey toPrivateKey() {
+        requirePrivate();
+        return new PrivateKey(elements(), getR(), getQ());
+    }
+
+    private BigInteger[] elements() {
+        BigInteger[] elements = new BigInteger[size];
+        for (int i = 0; i < size; i++) {
+            elements[i] = element(i);
+        }
+        return elements;
+    }
+
+    private BigInteger decode(int offset) {
+        byte[] bytes = new byte[width];
+        buffer.get(offset, bytes);  // Absolute read; the shared buffer's position is never moved
+        return new BigInteger(1, bytes);
+    }
+
+    private void requirePrivate() {
+        if (!isPrivate()) {
+            throw new IllegalStateException("Key file holds a public key");
+        }
+    }
+
+    private static void putFixedWidth(ByteBuffer out, BigInteger value, int width) {
+        byte[] bytes = value.toByteArray();
+        // toByteArray() may add a leading sign byte or be shorter than the width
+        int skip = Math.max(0, bytes.length - width);
+        for (int i = bytes.length - skip; i < width; i++) {
+            out.put((byte) 0);
+        }
+        out.put(bytes, skip, bytes.length - skip);
+    }
+}
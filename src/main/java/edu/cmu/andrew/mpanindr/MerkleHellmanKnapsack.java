@@ -3,8 +3,12 @@ package edu.cmu.andrew.mpanindr;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.math.BigInteger;
-import java.util.Random;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
 import java.util.Scanner;
 
 /**
@@ -14,28 +18,32 @@ import java.util.Scanner;
  * original message.
  * <p>
  * The class demonstrates key generation, encryption, decryption, and binary-string conversion in a cryptographic setting.
- * It uses the SinglyLinkedList data structure to store both private and public keys.
+ * Keys are held in the indexed, immutable PublicKey and PrivateKey types, so that encryption and decryption run in
+ * linear time; the original SinglyLinkedList-based entry points are kept and copy their lists into these types.
  * <p>
  * The encryption and decryption are based on the Merkle-Hellman Knapsack algorithm, a variation of the subset-sum problem.
  * The public key is derived from a super-increasing sequence (private key) through modular arithmetic. Decryption requires
  * solving the subset-sum problem using the private key and the modular inverse of the key parameters.
  * <p>
  * Features:
- * - Generate a super-increasing sequence for private key and public key using modular arithmetic.
+ * - Generate a super-increasing sequence for private key and public key using modular arithmetic (see KeyGenerator).
  * - Encrypt a message as a large integer by converting the input string into binary and performing subset-sum.
  * - Decrypt the ciphertext by using modular inverse and solving the subset-sum problem to retrieve the original message.
  * - Converts strings to their binary representation and back.
+ * - Encrypts and decrypts raw byte arrays directly, without the intermediate binary string.
+ * - Encrypts batches of messages under one public key, sharing the per-key preparation.
  * <p>
  * Usage:
- * - Input a string (less than 80 characters) and encrypt it.
- * - Decrypt the resulting ciphertext to verify correctness.
+ * - Without arguments: input a string (less than 80 characters) and encrypt it, then decrypt the resulting ciphertext
+ * to verify correctness.
+ * - With arguments: generate key files, or encrypt and decrypt whole files block by block (see runFileCommand()).
  * <p>
  * Dependencies:
  * - SinglyLinkedList: A custom linked list implementation for storing keys.
  * - HashUtil: Utility class for hashing, if needed (imported in other parts of the code).
  * <p>
- * Class Fields:
- * - BIT_LENGTH: A constant specifying the bit length for key generation (640-bit).
+ * Key generation lives in KeyGenerator, which picks a prime modulus above the sum of the super-increasing sequence so
+ * that every generated key decrypts correctly.
  *
  * @author Manjunath K P
  * @version 1.0
@@ -43,9 +51,16 @@ import java.util.Scanner;
  */
 public class MerkleHellmanKnapsack {
     private static final Logger logger = LoggerFactory.getLogger(MerkleHellmanKnapsack.class);
-    private static final int BIT_LENGTH = 640;  // Maximum bit length for BigInteger
+    private static final String USAGE = "Usage: generate-key <bits> <element-bits> <private-key-file> <public-key-file>\n"
+            + "       encrypt-file <public-key-file> <input> <output>\n"
+            + "       decrypt-file <private-key-file> <input> <output>";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0) {
+            runFileCommand(args);
+            return;
+        }
 
-    public static void main(String[] args) {
         // Input string from the user
         Scanner sc = new Scanner(System.in);
         logger.info("Enter a string and I will encrypt it as a single large integer.");
@@ -56,99 +71,438 @@ public class MerkleHellmanKnapsack {
             return;
         }
 
-        // Create the lists for private and public keys
-        SinglyLinkedList wList = new SinglyLinkedList();  // For super-increasing sequence (private key)
-        SinglyLinkedList bList = new SinglyLinkedList();  // For public key
+        logger.info("Clear text:\n{}", inputString);
+        byte[] message = inputString.getBytes(StandardCharsets.UTF_8);
+        logger.info("Number of clear text bytes = {}", message.length);
 
-        // Generate the Merkle-Hellman keys
-        BigInteger r = new BigInteger(BIT_LENGTH, new Random()); // r is a random 640-bit number
-        BigInteger q = new BigInteger(BIT_LENGTH, new Random()); // q is a random 640-bit number
-        q = q.abs(); // Ensure q is positive
-        r = r.abs(); // Ensure r is positive
+        // Generate the Merkle-Hellman keys: a super-increasing sequence w, a prime modulus q > sum(w), a multiplier r,
+        // and the public key b_i = (r * w_i) % q
+        KeyPair keyPair = new KeyGenerator().generate(message.length * 8);
+
+        // Encrypt the message bytes directly, without going through a binary string
+        BigInteger cipherText = encrypt(message, keyPair.getPublicKey());
+        // Large ciphertexts are abbreviated, and nothing is rendered unless the level is enabled
+        logger.info("{} is encrypted as\n{}", inputString, LogValues.abbreviate(cipherText));
+        logger.debug("Full ciphertext: {}", cipherText);
+
+        // Decrypt the ciphertext back into bytes and decode them
+        byte[] decryptedBytes = decryptBytes(cipherText, keyPair.getPrivateKey());
+        String decryptedString = new String(decryptedBytes, StandardCharsets.UTF_8);
+        logger.info("Result of decryption: {}", decryptedString);
+    }
 
-        // Ensure that r and q are coprime
-        while (!r.gcd(q).equals(BigInteger.ONE)) {
-            r = new BigInteger(BIT_LENGTH, new Random());
-            r = r.abs();
+    /**
+     * Runs one of the file-mode commands:
+     * - generate-key &lt;bits&gt; &lt;element-bits&gt; &lt;private-key-file&gt; &lt;public-key-file&gt;
+     * - encrypt-file &lt;public-key-file&gt; &lt;input&gt; &lt;output&gt;
+     * - decrypt-file &lt;private-key-file&gt; &lt;input&gt; &lt;output&gt;
+     *
+     * @param args The command-line arguments.
+     * @throws IOException If a file cannot be read or written.
+     * @pre-condition args is non-empty.
+     * @post-condition The command has run, or its usage has been logged because the arguments were missing or invalid.
+     * @time-complexity O(n) - Where n is the number of bits processed; see KnapsackFiles.
+     */
+    private static void runFileCommand(String[] args) throws IOException {
+        String command = args[0];
+        if (args.length != ("generate-key".equals(command) ? 5 : 4)) {
+            logger.info(USAGE);
+            return;
+        }
+        switch (command) {
+            case "generate-key":
+                KeyPair keyPair;
+                try {
+                    keyPair = new KeyGenerator().generate(Integer.parseInt(args[1]), Integer.parseInt(args[2]));
+                } catch (IllegalArgumentException e) {
+                    // NumberFormatException is an IllegalArgumentException, so this covers both bad numbers and bad sizes
+                    logger.info("Invalid key size: {}\n{}", e.getMessage(), USAGE);
+                    return;
+                }
+                MappedKeyFile.write(Path.of(args[3]), keyPair.getPrivateKey());
+                MappedKeyFile.write(Path.of(args[4]), keyPair.getPublicKey());
+                logger.info("Wrote a {}-bit key pair to {} and {}", args[1], args[3], args[4]);
+                break;
+            case "encrypt-file":
+                long encrypted = KnapsackFiles.encryptFile(Path.of(args[1]), Path.of(args[2]), Path.of(args[3]));
+                logger.info("Encrypted {} bytes from {} into {}", encrypted, args[2], args[3]);
+                break;
+            case "decrypt-file":
+                long decrypted = KnapsackFiles.decryptFile(Path.of(args[1]), Path.of(args[2]), Path.of(args[3]));
+                logger.info("Decrypted {} bytes from {} into {}", decrypted, args[2], args[3]);
+                break;
+            default:
+                logger.info("Unknown command: {}", command);
         }
+    }
 
-        logger.info("Clear text:\n" + inputString);
-        logger.info("Number of clear text bytes = " + inputString.getBytes().length);
+    /**
+     * Converts a given string to its binary representation. The string is encoded as UTF-8, each resulting byte is
+     * converted into an 8-bit binary string, and all such binary strings are concatenated into a single output string.
+     *
+     * @param input The input string to be converted to binary representation.
+     * @return A string containing the binary representation of the input string. Each byte is represented as an 8-bit binary string.
+     * @pre-condition The input string must be a valid non-null string.
+     * @post-condition The method returns a binary string where each UTF-8 byte of the input string is converted to its 8-bit
+     * binary representation. ASCII characters therefore take exactly 8 bits, while characters above 127 take 16 to 32 bits.
+     * @time-complexity O(n) - Where n is the number of bytes in the UTF-8 encoding of the input string. Each bit is written
+     * directly into a preallocated buffer.
+     */
+    public static String stringToBinary(String input) {
+        byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+        char[] binary = new char[bytes.length * 8];
+        for (int i = 0; i < binary.length; i++) {
+            binary[i] = (bytes[i >>> 3] & (0x80 >>> (i & 7))) != 0 ? '1' : '0';
+        }
+        return new String(binary);
+    }
 
-        int numberOfBits = inputString.length() * 8;
+    /**
+     * Converts a binary string back to its original string representation. The binary string should be composed of
+     * 8-bit binary sequences where each sequence corresponds to one byte of the UTF-8 encoded string.
+     *
+     * @param binaryInput The binary string to be converted back to the original string.
+     * @return The original string that the binary input represents, decoded from UTF-8.
+     * @pre-condition The input binary string must be valid and composed of 8-bit binary sequences. Its length must be a multiple of 8.
+     * @post-condition The method returns the original string corresponding to the input binary string.
+     * @throws IllegalArgumentException If the length is not a multiple of 8 or the string contains characters other than '0' and '1'.
+     * @time-complexity O(n) - Where n is the length of the binary input string. Each character is read once.
+     */
+    public static String binaryToString(String binaryInput) {
+        if ((binaryInput.length() & 7) != 0) {
+            throw new IllegalArgumentException("Binary string length must be a multiple of 8");
+        }
+        byte[] bytes = new byte[binaryInput.length() / 8];
+        for (int i = 0; i < binaryInput.length(); i++) {
+            char bit = binaryInput.charAt(i);
+            if (bit == '1') {
+                bytes[i >>> 3] |= (byte) (0x80 >>> (i & 7));
+            } else if (bit != '0') {
+                throw new IllegalArgumentException("Invalid binary digit '" + bit + "' at position " + i);
+            }
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
 
-        // Generate the super-increasing sequence w
-        BigInteger sum = BigInteger.ZERO;
-        for (int i = 0; i < numberOfBits; i++) {
-            // Ensure that the next value is greater than the sum of all previous values
-            BigInteger nextValue = sum.add(new BigInteger(BIT_LENGTH / numberOfBits, new Random())).add(BigInteger.ONE);
-            wList.addAtEndNode(nextValue);
-            sum = sum.add(nextValue);  // Update the running sum
+    /**
+     * Encrypts a message given as raw bytes. Bit i of the message (most significant bit of each byte first) selects the
+     * public key element b_i, and the ciphertext is the sum of all selected elements.
+     *
+     * @param message   The message bytes to be encrypted.
+     * @param publicKey The public key.
+     * @return A BigInteger representing the ciphertext.
+     * @pre-condition message.length * 8 must be less than or equal to publicKey.size().
+     * @post-condition The method returns the encrypted message. The message and key remain unchanged.
+     * @time-complexity O(n) - Where n is the number of message bits. Bits are read straight from the bytes.
+     */
+    public static BigInteger encrypt(byte[] message, PublicKey publicKey) {
+        return encrypt(message, 0, message.length, publicKey);
+    }
+
+    /**
+     * Encrypts a range of a byte array. Bit i of the range (most significant bit of each byte first) selects the public
+     * key element b_i, and the ciphertext is the sum of all selected elements.
+     *
+     * @param message   The array holding the message bytes.
+     * @param offset    The index of the first message byte.
+     * @param length    The number of message bytes.
+     * @param publicKey The public key.
+     * @return A BigInteger representing the ciphertext.
+     * @pre-condition The range lies within message, and length * 8 is less than or equal to publicKey.size().
+     * @post-condition The method returns the encrypted message. The message and key remain unchanged.
+     * @time-complexity O(n) - Where n is the number of message bits. Zero bytes are skipped as a whole, and the sum is
+     * kept in a mutable LimbAccumulator so only the final ciphertext is allocated as a BigInteger.
+     */
+    public static BigInteger encrypt(byte[] message, int offset, int length, PublicKey publicKey) {
+        EncryptEvent event = beginEncrypt();
+        long start = System.nanoTime();
+        try {
+            checkMessageRange(message, offset, length, publicKey.size());
+            LimbAccumulator cipherText = new LimbAccumulator(publicKey.accumulatorCapacity());
+            accumulate(message, offset, length, publicKey, cipherText);
+            BigInteger result = cipherText.toBigInteger();
+            finishEncrypt(event, start, length * 8L, publicKey.size());
+            return result;
+        } catch (RuntimeException e) {
+            failEncrypt();
+            throw e;
         }
+    }
 
-//        logger.info("W is : " + wList);
+    /**
+     * Encrypts a range of a ByteBuffer, such as a memory-mapped file, without copying it into an array. The buffer's
+     * position and limit are not used or changed.
+     *
+     * @param message   The buffer holding the message bytes.
+     * @param offset    The absolute index of the first message byte.
+     * @param length    The number of message bytes.
+     * @param publicKey The public key.
+     * @return A BigInteger representing the ciphertext.
+     * @pre-condition The range lies within the buffer's capacity, and length * 8 is less than or equal to publicKey.size().
+     * @post-condition The method returns the encrypted message. The buffer and key remain unchanged.
+     * @time-complexity O(n) - Where n is the number of message bits.
+     */
+    public static BigInteger encrypt(ByteBuffer message, int offset, int length, PublicKey publicKey) {
+        EncryptEvent event = beginEncrypt();
+        long start = System.nanoTime();
+        try {
+            checkMessageRange(message, offset, length, publicKey.size());
+            LimbAccumulator cipherText = new LimbAccumulator(publicKey.accumulatorCapacity());
+            accumulate(message, offset, length, publicKey, cipherText);
+            BigInteger result = cipherText.toBigInteger();
+            finishEncrypt(event, start, length * 8L, publicKey.size());
+            return result;
+        } catch (RuntimeException e) {
+            failEncrypt();
+            throw e;
+        }
+    }
 
-        // Generate the public key b using: b_i = (r * w_i) % q
-        for (int i = 0; i < wList.countNodes(); i++) {
-            BigInteger w_i = (BigInteger) wList.getObjectAt(i);
-            BigInteger b_i = (r.multiply(w_i)).mod(q);
-            bList.addAtEndNode(b_i);
+    /**
+     * Adds the public key elements selected by a message range into an accumulator, in place.
+     *
+     * @param message     The array holding the message bytes.
+     * @param offset      The index of the first message byte.
+     * @param length      The number of message bytes.
+     * @param publicKey   The public key.
+     * @param accumulator The accumulator receiving the sum.
+     * @pre-condition The range has been validated with checkMessageRange().
+     * @time-complexity O(n) - Where n is the number of message bits.
+     */
+    static void accumulate(byte[] message, int offset, int length, PublicKey publicKey, LimbAccumulator accumulator) {
+        for (int i = 0; i < length; i++) {
+            int bits = message[offset + i] & 0xFF;
+            int base = i * 8;
+            while (bits != 0) {
+                // The highest set bit of the byte corresponds to the lowest key index
+                int bit = Integer.numberOfLeadingZeros(bits) - 24;
+                accumulator.add(publicKey.limbs(base + bit));
+                bits &= ~(0x80 >>> bit);
+            }
         }
+    }
 
-        // Convert string input to binary
-        String binaryString = stringToBinary(inputString);
+    /**
+     * Adds the public key elements selected by a buffer range into an accumulator, in place. The buffer is read with
+     * absolute gets, so its position and limit are not used or changed.
+     *
+     * @param message     The buffer holding the message bytes.
+     * @param offset      The absolute index of the first message byte.
+     * @param length      The number of message bytes.
+     * @param publicKey   The public key.
+     * @param accumulator The accumulator receiving the sum.
+     * @pre-condition The range has been validated with checkMessageRange().
+     * @time-complexity O(n) - Where n is the number of message bits.
+     */
+    static void accumulate(ByteBuffer message, int offset, int length, PublicKey publicKey, LimbAccumulator accumulator) {
+        for (int i = 0; i < length; i++) {
+            int bits = message.get(offset + i) & 0xFF;
+            int base = i * 8;
+            while (bits != 0) {
+                int bit = Integer.numberOfLeadingZeros(bits) - 24;
+                accumulator.add(publicKey.limbs(base + bit));
+                bits &= ~(0x80 >>> bit);
+            }
+        }
+    }
 
-        // Encrypt the binary string
-        BigInteger cipherText = encrypt(binaryString, bList);
-        logger.info(inputString + " is encrypted as\n" + cipherText);
+    /**
+     * Encrypts many messages under one public key. The accumulator used for the sums is allocated once and reused for
+     * every message, so the per-message cost is only the additions themselves.
+     *
+     * @param messages  The messages to encrypt.
+     * @param publicKey The public key.
+     * @param out       The array receiving the ciphertexts; out[i] is the ciphertext of messages.get(i).
+     * @return The size and duration of the batch.
+     * @pre-condition out.length is at least messages.size(), and every message fits the key.
+     * @post-condition out[0 .. messages.size() - 1] hold the ciphertexts. The messages and key remain unchanged.
+     * @time-complexity O(N) - Where N is the total number of message bits in the batch.
+     */
+    public static BatchStatistics encryptBatch(List<byte[]> messages, PublicKey publicKey, BigInteger[] out) {
+        checkBatchOutput(messages, out);
+        long start = System.nanoTime();
+        LimbAccumulator accumulator = new LimbAccumulator(publicKey.accumulatorCapacity());
+        long bytes = 0;
+        int largest = 0;
 
-        // Decrypt the ciphertext
-        String decryptedBinary = decrypt(cipherText, r, q, wList);
+        try {
+            for (int i = 0; i < messages.size(); i++) {
+                byte[] message = messages.get(i);
+                checkMessageRange(message, 0, message.length, publicKey.size());
+                accumulator.reset();
+                accumulate(message, 0, message.length, publicKey, accumulator);
+                out[i] = accumulator.toBigInteger();
+                bytes += message.length;
+                largest = Math.max(largest, message.length);
+            }
+        } catch (RuntimeException e) {
+            failEncrypt();
+            throw e;
+        }
 
-        // Convert binary string back to the original string
-        String decryptedString = binaryToString(decryptedBinary);
-        logger.info("Result of decryption: " + decryptedString);
+        return finishBatch(messages.size(), bytes, largest, start);
     }
 
     /**
-     * Converts a given string to its binary representation. Each character in the string is converted into an 8-bit binary
-     * string, and all such binary strings are concatenated into a single output string.
+     * Encrypts many messages with a precomputed encryption table, sharing both the table and a single accumulator
+     * across the whole batch.
      *
-     * @param input The input string to be converted to binary representation.
-     * @return A string containing the binary representation of the input string. Each character is represented as an 8-bit binary string.
-     * @pre-condition The input string must be a valid non-null string.
-     * @post-condition The method returns a binary string where each character in the input string is converted to its 8-bit binary representation.
-     * @time-complexity O(n) - Where n is the number of characters in the input string. Each character is processed individually and converted
-     * to an 8-bit binary representation.
+     * @param messages The messages to encrypt.
+     * @param table    The encryption table built for the public key.
+     * @param out      The array receiving the ciphertexts; out[i] is the ciphertext of messages.get(i).
+     * @return The size and duration of the batch.
+     * @pre-condition out.length is at least messages.size(), and every message fits the key.
+     * @post-condition out[0 .. messages.size() - 1] hold the ciphertexts. The messages and table remain unchanged.
+     * @time-complexity O(N / w) - Where N is the total number of message bits and w is the table's window width.
      */
-    public static String stringToBinary(String input) {
-        StringBuilder binary = new StringBuilder();
-        for (char character : input.toCharArray()) {
-            binary.append(String.format("%8s", Integer.toBinaryString(character)).replaceAll(" ", "0"));
+    public static BatchStatistics encryptBatch(List<byte[]> messages, EncryptionTable table, BigInteger[] out) {
+        checkBatchOutput(messages, out);
+        long start = System.nanoTime();
+        LimbAccumulator accumulator = new LimbAccumulator(table.accumulatorCapacity());
+        int keySize = table.getPublicKey().size();
+        long bytes = 0;
+        int largest = 0;
+
+        try {
+            for (int i = 0; i < messages.size(); i++) {
+                byte[] message = messages.get(i);
+                checkMessageRange(message, 0, message.length, keySize);
+                accumulator.reset();
+                table.accumulate(message, 0, message.length, accumulator);
+                out[i] = accumulator.toBigInteger();
+                bytes += message.length;
+                largest = Math.max(largest, message.length);
+            }
+        } catch (RuntimeException e) {
+            failEncrypt();
+            throw e;
         }
-        return binary.toString();
+
+        return finishBatch(messages.size(), bytes, largest, start);
     }
 
     /**
-     * Converts a binary string back to its original string representation. The binary string should be composed of
-     * 8-bit binary sequences where each sequence corresponds to a character.
+     * Records a completed batch in CryptoMetrics.ENCRYPTION, with one operation per message, and returns its statistics.
+     * Batches are timed as a whole rather than per message, so they emit no per-message flight recorder events.
      *
-     * @param binaryInput The binary string to be converted back to the original string.
-     * @return The original string that the binary input represents, where each 8-bit segment is converted to a character.
-     * @pre-condition The input binary string must be valid and composed of 8-bit binary sequences. Its length must be a multiple of 8.
-     * @post-condition The method returns the original string corresponding to the input binary string. If the binary string length is not
-     * a multiple of 8, the method may throw an exception or result in an incomplete conversion.
-     * @time-complexity O(n / 8) ~ O(n) - Where n is the length of the binary input string. The method processes each 8-bit segment in constant time,
-     * iterating over all such segments.
+     * @param messages The number of messages in the batch.
+     * @param bytes    The total number of message bytes.
+     * @param largest  The length of the longest message, in bytes.
+     * @param start    The System.nanoTime() value read when the batch started.
+     * @return The size and duration of the batch.
+     * @time-complexity O(1)
      */
-    public static String binaryToString(String binaryInput) {
-        StringBuilder result = new StringBuilder();
-        for (int i = 0; i < binaryInput.length(); i += 8) {
-            String byteString = binaryInput.substring(i, i + 8);
-            int charCode = Integer.parseInt(byteString, 2);
-            result.append((char) charCode);
+    private static BatchStatistics finishBatch(int messages, long bytes, int largest, long start) {
+        long nanos = System.nanoTime() - start;
+        CryptoMetrics.ENCRYPTION.recordBatch(messages, bytes * 8, largest * 8L, nanos);
+        return new BatchStatistics(messages, bytes, nanos);
+    }
+
+    /**
+     * Begins the flight recorder event of one encryption. Every instrumented encrypt path, including
+     * EncryptionTable.encrypt(), starts with this and ends with finishEncrypt() or failEncrypt(), so the metrics and
+     * events of the different entry points stay consistent.
+     *
+     * @return The begun event.
+     * @time-complexity O(1)
+     */
+    static EncryptEvent beginEncrypt() {
+        EncryptEvent event = new EncryptEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Records a completed encryption in CryptoMetrics.ENCRYPTION and commits its flight recorder event.
+     *
+     * @param event       The event returned by beginEncrypt().
+     * @param start       The System.nanoTime() value read when encryption started.
+     * @param messageBits The number of message bits encrypted.
+     * @param keySize     The number of public key elements.
+     * @time-complexity O(1)
+     */
+    static void finishEncrypt(EncryptEvent event, long start, long messageBits, int keySize) {
+        CryptoMetrics.ENCRYPTION.recordSuccess(messageBits, System.nanoTime() - start);
+        event.messageBits = messageBits;
+        event.keySize = keySize;
+        event.commit();
+    }
+
+    /**
+     * Records a failed encryption in CryptoMetrics.ENCRYPTION. Failed encryptions emit no flight recorder event.
+     *
+     * @time-complexity O(1)
+     */
+    static void failEncrypt() {
+        CryptoMetrics.ENCRYPTION.recordError();
+    }
+
+    /**
+     * Checks that a batch output array can hold one ciphertext per message.
+     *
+     * @param messages The messages to encrypt.
+     * @param out      The output array.
+     * @throws IllegalArgumentException If out is shorter than the batch.
+     * @time-complexity O(1)
+     */
+    private static void checkBatchOutput(List<byte[]> messages, BigInteger[] out) {
+        if (out.length < messages.size()) {
+            throw new IllegalArgumentException("Output array holds " + out.length
+                    + " ciphertexts but the batch has " + messages.size() + " messages");
+        }
+    }
+
+    /**
+     * Validates a message range against the array holding it and the number of bits a key can encrypt.
+     *
+     * @param message The array holding the message bytes.
+     * @param offset  The index of the first message byte.
+     * @param length  The number of message bytes.
+     * @param keySize The number of elements in the key.
+     * @throws IndexOutOfBoundsException If the range is not inside the array.
+     * @throws IllegalArgumentException  If the range has more bits than the key has elements.
+     * @time-complexity O(1)
+     */
+    static void checkMessageRange(byte[] message, int offset, int length, int keySize) {
+        if (offset < 0 || length < 0 || offset > message.length - length) {
+            throw new IndexOutOfBoundsException("Range [" + offset + ", " + ((long) offset + length)
+                    + ") is outside an array of length " + message.length);
+        }
+        checkMessageLength(length * 8L, keySize);
+    }
+
+    /**
+     * Validates a message range against the capacity of the buffer holding it and the number of bits a key can encrypt.
+     *
+     * @param message The buffer holding the message bytes.
+     * @param offset  The absolute index of the first message byte.
+     * @param length  The number of message bytes.
+     * @param keySize The number of elements in the key.
+     * @throws IndexOutOfBoundsException If the range is not inside the buffer's capacity.
+     * @throws IllegalArgumentException  If the range has more bits than the key has elements.
+     * @time-complexity O(1)
+     */
+    static void checkMessageRange(ByteBuffer message, int offset, int length, int keySize) {
+        if (offset < 0 || length < 0 || offset > message.capacity() - length) {
+            throw new IndexOutOfBoundsException("Range [" + offset + ", " + ((long) offset + length)
+                    + ") is outside a buffer of capacity " + message.capacity());
+        }
+        checkMessageLength(length * 8L, keySize);
+    }
+
+    /**
+     * Validates the length of a message against the number of bits a key can encrypt.
+     *
+     * @param messageBits The number of message bits.
+     * @param keySize     The number of elements in the key.
+     * @throws IllegalArgumentException If the message has more bits than the key has elements.
+     * @time-complexity O(1)
+     */
+    private static void checkMessageLength(long messageBits, int keySize) {
+        if (messageBits > keySize) {
+            throw new IllegalArgumentException("Message has " + messageBits
+                    + " bits but the public key only covers " + keySize);
         }
-        return result.toString();
     }
 
     /**
@@ -163,19 +517,45 @@ public class MerkleHellmanKnapsack {
      * Each element in the publicKey list must be a BigInteger.
      * @post-condition The method returns a BigInteger representing the encrypted message.
      * The original binary string and public key remain unchanged.
-     * @time-complexity O(n) - Where n is the length of the binary string. The method processes each character in the binary string,
-     * and performs constant-time addition for each '1' found in the string.
+     * @time-complexity O(n) - Where n is the length of the binary string. The list is copied into an indexed key once,
+     * and each '1' found in the string then costs one addition.
      */
-    public static BigInteger encrypt(String binaryString, SinglyLinkedList publicKey) {
-        BigInteger cipherText = BigInteger.ZERO;
+    public static BigInteger encrypt(String binaryString, SinglyLinkedList<BigInteger> publicKey) {
+        return encrypt(binaryString, PublicKey.fromList(publicKey));
+    }
 
-        for (int i = 0; i < binaryString.length(); i++) {
-            if (binaryString.charAt(i) == '1') {
-                cipherText = cipherText.add((BigInteger) publicKey.getObjectAt(i));
+    /**
+     * Encrypts a binary string using an indexed public key, where each '1' in the binary string corresponds to a
+     * value from the public key that is added to the resulting ciphertext.
+     *
+     * @param binaryString The binary string to be encrypted, typically a binary representation of the original message.
+     * @param publicKey    The public key. Each index in the key corresponds to a position in the binary string.
+     * @return A BigInteger representing the ciphertext, which is the sum of the public key values corresponding to '1's in the binary string.
+     * @pre-condition The binaryString must have a length that is less than or equal to publicKey.size().
+     * @post-condition The method returns a BigInteger representing the encrypted message.
+     * The original binary string and public key remain unchanged.
+     * @time-complexity O(n) - Where n is the length of the binary string. Each public key element is fetched in constant time.
+     */
+    public static BigInteger encrypt(String binaryString, PublicKey publicKey) {
+        EncryptEvent event = beginEncrypt();
+        long start = System.nanoTime();
+        try {
+            checkMessageLength(binaryString.length(), publicKey.size());
+            LimbAccumulator cipherText = new LimbAccumulator(publicKey.accumulatorCapacity());
+
+            for (int i = 0; i < binaryString.length(); i++) {
+                if (binaryString.charAt(i) == '1') {
+                    cipherText.add(publicKey.limbs(i));
+                }
             }
-        }
 
-        return cipherText;
+            BigInteger result = cipherText.toBigInteger();
+            finishEncrypt(event, start, binaryString.length(), publicKey.size());
+            return result;
+        } catch (RuntimeException e) {
+            failEncrypt();
+            throw e;
+        }
     }
 
     /**
@@ -192,25 +572,180 @@ public class MerkleHellmanKnapsack {
      * - wList must be a super-increasing sequence with all elements being BigIntegers.
      * @post-condition The method returns a binary string that corresponds to the original message before encryption.
      * The original ciphertext, r, q, and wList remain unchanged.
-     * @time-complexity O(n) - Where n is the number of nodes in wList. The method iterates through the elements of wList once
-     * to solve the subset-sum problem.
-     */
-    public static String decrypt(BigInteger cipherText, BigInteger r, BigInteger q, SinglyLinkedList wList) {
-        BigInteger rInverse = r.modInverse(q);  // Find modular inverse of r mod q
-        BigInteger decryptedValue = cipherText.multiply(rInverse).mod(q);  // c' = (cipherText * rInverse) % q
-
-        // Solve the subset-sum problem using the super-increasing sequence wList
-        StringBuilder binaryResult = new StringBuilder();
-        for (int i = wList.countNodes() - 1; i >= 0; i--) {
-            BigInteger w_i = (BigInteger) wList.getObjectAt(i);
-            if (w_i.compareTo(decryptedValue) <= 0) {
-                binaryResult.insert(0, "1");
-                decryptedValue = decryptedValue.subtract(w_i);
-            } else {
-                binaryResult.insert(0, "0");
+     * @time-complexity O(n) - Where n is the number of nodes in wList. The list is copied into an indexed key once and
+     * then walked backwards to solve the subset-sum problem.
+     */
+    public static String decrypt(BigInteger cipherText, BigInteger r, BigInteger q, SinglyLinkedList<BigInteger> wList) {
+        return decrypt(cipherText, PrivateKey.fromList(wList, r, q));
+    }
+
+    /**
+     * Decrypts the given ciphertext using an indexed private key.
+     *
+     * @param cipherText The ciphertext as a BigInteger that was generated during encryption.
+     * @param privateKey The private key holding the super-increasing sequence w, the multiplier r and the modulus q.
+     * @return A binary string of privateKey.size() characters representing the original message before encryption.
+     * @throws IllegalArgumentException If the ciphertext is not a subset sum of the key, i.e. it is corrupt or was
+     *                                  produced with a different key.
+     * @pre-condition cipherText must be a valid BigInteger that was generated using the matching public key.
+     * @post-condition The method returns a binary string that corresponds to the original message before encryption.
+     * The ciphertext and key remain unchanged.
+     * @time-complexity O(n) - Where n is the number of elements in the key. Each element is fetched in constant time.
+     */
+    public static String decrypt(BigInteger cipherText, PrivateKey privateKey) {
+        byte[] bits = decryptBytes(cipherText, privateKey);
+
+        // Expand the packed bits into exactly one '0'/'1' character per key element
+        char[] binaryResult = new char[privateKey.size()];
+        for (int i = 0; i < binaryResult.length; i++) {
+            binaryResult[i] = (bits[i >>> 3] & (0x80 >>> (i & 7))) != 0 ? '1' : '0';
+        }
+
+        return new String(binaryResult);
+    }
+
+    /**
+     * Decrypts the given ciphertext straight into bytes, without building an intermediate binary string.
+     *
+     * @param cipherText The ciphertext as a BigInteger that was generated during encryption.
+     * @param privateKey The private key holding the super-increasing sequence w, the multiplier r and the modulus q.
+     * @return The decrypted message, privateKey.size() / 8 bytes long (rounded up). Bit i of the result (most
+     * significant bit of each byte first) is set when w_i is part of the subset sum.
+     * @throws IllegalArgumentException If the ciphertext is not a subset sum of the key, i.e. it is corrupt or was
+     *                                  produced with a different key.
+     * @pre-condition cipherText must be a valid BigInteger that was generated using the matching public key.
+     * @post-condition The method returns the original message bytes. The ciphertext and key remain unchanged.
+     * @time-complexity O(n) - Where n is the number of elements in the key.
+     */
+    public static byte[] decryptBytes(BigInteger cipherText, PrivateKey privateKey) {
+        DecryptEvent event = beginDecrypt();
+        long start = System.nanoTime();
+        try {
+            BigInteger rInverse = privateKey.getR().modInverse(privateKey.getQ());  // Find modular inverse of r mod q
+            BigInteger decryptedValue = cipherText.multiply(rInverse).mod(privateKey.getQ());  // c' = (cipherText * rInverse) % q
+            byte[] result = solveSubsetSum(decryptedValue, privateKey);
+            finishDecrypt(event, start, privateKey);
+            return result;
+        } catch (RuntimeException e) {
+            failDecrypt(event, privateKey);
+            throw e;
+        }
+    }
+
+    /**
+     * Decrypts the given ciphertext straight into bytes using a precomputed decryption context. This avoids
+     * recomputing r^-1 mod q and replaces the final division with Barrett reduction, so it is the preferred entry
+     * point when one private key decrypts many ciphertexts.
+     *
+     * @param cipherText The ciphertext as a BigInteger that was generated during encryption.
+     * @param context    The decryption context built once for the private key.
+     * @return The decrypted message, as described for decryptBytes(BigInteger, PrivateKey).
+     * @throws IllegalArgumentException If the ciphertext is not a subset sum of the key, i.e. it is corrupt or was
+     *                                  produced with a different key.
+     * @pre-condition cipherText must be a valid BigInteger that was generated using the matching public key.
+     * @post-condition The method returns the original message bytes. The ciphertext and context remain unchanged.
+     * @time-complexity O(n) - Where n is the number of elements in the key.
+     */
+    public static byte[] decryptBytes(BigInteger cipherText, DecryptionContext context) {
+        DecryptEvent event = beginDecrypt();
+        long start = System.nanoTime();
+        try {
+            byte[] result = solveSubsetSum(context.unwrap(cipherText), context.getPrivateKey());
+            finishDecrypt(event, start, context.getPrivateKey());
+            return result;
+        } catch (RuntimeException e) {
+            failDecrypt(event, context.getPrivateKey());
+            throw e;
+        }
+    }
+
+    /**
+     * Begins the flight recorder event of one decryption. Every instrumented decrypt path starts with this and ends with
+     * finishDecrypt() or failDecrypt().
+     *
+     * @return The begun event.
+     * @time-complexity O(1)
+     */
+    private static DecryptEvent beginDecrypt() {
+        DecryptEvent event = new DecryptEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Records a completed decryption in CryptoMetrics.DECRYPTION and commits its flight recorder event.
+     *
+     * @param event      The event returned by beginDecrypt().
+     * @param start      The System.nanoTime() value read when decryption started.
+     * @param privateKey The key used for decryption.
+     * @time-complexity O(1)
+     */
+    private static void finishDecrypt(DecryptEvent event, long start, PrivateKey privateKey) {
+        CryptoMetrics.DECRYPTION.recordSuccess(privateKey.size(), System.nanoTime() - start);
+        commitDecryptEvent(event, privateKey, true);
+    }
+
+    /**
+     * Records a failed decryption in CryptoMetrics.DECRYPTION and commits its flight recorder event.
+     *
+     * @param event      The event returned by beginDecrypt().
+     * @param privateKey The key used for decryption.
+     * @time-complexity O(1)
+     */
+    private static void failDecrypt(DecryptEvent event, PrivateKey privateKey) {
+        CryptoMetrics.DECRYPTION.recordError();
+        commitDecryptEvent(event, privateKey, false);
+    }
+
+    /**
+     * Fills in and commits a decryption flight recorder event. commit() only writes the event when recording is enabled
+     * for it, so this costs next to nothing otherwise.
+     *
+     * @param event      The event begun when decryption started.
+     * @param privateKey The key used for decryption.
+     * @param succeeded  Whether the ciphertext decrypted.
+     * @time-complexity O(1)
+     */
+    private static void commitDecryptEvent(DecryptEvent event, PrivateKey privateKey, boolean succeeded) {
+        event.keySize = privateKey.size();
+        event.succeeded = succeeded;
+        event.commit();
+    }
+
+    /**
+     * Solves the subset-sum problem for c' over the super-increasing sequence, setting bits directly in a preallocated
+     * output buffer from the last element backwards.
+     * <p>
+     * Most elements can be classified by bit length alone: an element with more bits than the remainder cannot fit, and
+     * one with fewer bits always fits, so the full compareTo() is only needed when the bit lengths are equal. The walk
+     * stops as soon as the remainder reaches zero, since every smaller element is then excluded. A remainder that is
+     * still non-zero after the first element means the value is not a subset sum of the sequence.
+     *
+     * @param decryptedValue The unwrapped ciphertext c' = (c * r^-1) % q.
+     * @param privateKey     The private key holding the super-increasing sequence.
+     * @return The message bytes, with bit i set when w_i is part of the subset sum.
+     * @throws IllegalArgumentException If decryptedValue is not a subset sum of the sequence.
+     * @time-complexity O(n) - Where n is the number of elements in the key. Only elements that are taken cost a subtraction.
+     */
+    private static byte[] solveSubsetSum(BigInteger decryptedValue, PrivateKey privateKey) {
+        byte[] result = new byte[(privateKey.size() + 7) / 8];
+        BigInteger remainder = decryptedValue;
+        int remainderBits = remainder.bitLength();
+
+        for (int i = privateKey.size() - 1; i >= 0 && remainderBits > 0; i--) {
+            BigInteger w_i = privateKey.get(i);
+            int elementBits = w_i.bitLength();
+            if (elementBits > remainderBits || (elementBits == remainderBits && w_i.compareTo(remainder) > 0)) {
+                continue;  // w_i is larger than what is left
             }
+            result[i >>> 3] |= (byte) (0x80 >>> (i & 7));
+            remainder = remainder.subtract(w_i);
+            remainderBits = remainder.bitLength();
         }
 
-        return binaryResult.toString();
+        if (remainderBits != 0) {
+            throw new IllegalArgumentException("Ciphertext is not a subset sum of the private key; it is corrupt or was encrypted with a different key");
+        }
+        return result;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,243 @@
+package edu.cmu.andrew.mpanindr;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The OperationMetrics class records the count, error count, latency and message size of one kind of crypto operation.
+ * <p>
+ * Every counter is a LongAdder (or a LongAccumulator for maxima), which stripes updates across cells under contention,
+ * so recording never takes a lock and threads on the hot path do not serialize on a shared counter. Reads sum the cells
+ * and are therefore only a consistent snapshot when no operation is in flight, which is acceptable for monitoring.
+ * <p>
+ * Latency and message size are also recorded in log2 histograms; see OperationMetricsMBean.
+ * <p>
+ * Time Complexity:
+ * - recordSuccess(), recordBatch() and recordError() are O(1).
+ * - Histogram reads and percentiles are O(HISTOGRAM_BUCKETS).
+ */
+public final class OperationMetrics implements OperationMetricsMBean {
+    private final String name;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder[] latencyBuckets = newBuckets();
+    private final LongAdder totalMessageBits = new LongAdder();
+    private final LongAccumulator maxMessageBits = new LongAccumulator(Math::max, 0);
+    private final LongAdder[] messageBitsBuckets = newBuckets();
+
+    /**
+     * Creates an empty set of metrics.
+     *
+     * @param name The name of the operation, used as the JMX "operation" key.
+     * @time-complexity O(HISTOGRAM_BUCKETS)
+     */
+    public OperationMetrics(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the name of the operation.
+     *
+     * @return The operation name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Records one completed operation.
+     *
+     * @param messageBits The size of the message or key the operation worked on, in bits.
+     * @param nanos       The time the operation took, in nanoseconds.
+     * @post-condition The count, latency and size metrics include the operation.
+     * @time-complexity O(1)
+     */
+    public void recordSuccess(long messageBits, long nanos) {
+        long latency = Math.max(0, nanos);  // nanoTime() differences are never negative in practice
+        count.increment();
+        totalNanos.add(latency);
+        maxNanos.accumulate(latency);
+        latencyBuckets[bucket(latency)].increment();
+        totalMessageBits.add(messageBits);
+        maxMessageBits.accumulate(messageBits);
+        messageBitsBuckets[bucket(messageBits)].increment();
+    }
+
+    /**
+     * Records a batch of completed operations that was timed as a whole. Every operation in the batch is counted, and the
+     * histograms see each of them at the batch's mean latency and mean message size, since the individual values were
+     * not measured. The maxima never take a mean: the largest message is known exactly, and the whole batch's time is
+     * used as a conservative upper bound for its slowest operation.
+     *
+     * @param operations         The number of operations in the batch.
+     * @param messageBits        The total size of the batch's messages, in bits.
+     * @param largestMessageBits The size of the batch's largest message, in bits.
+     * @param nanos              The time the whole batch took, in nanoseconds.
+     * @post-condition The count, latency and size metrics include every operation of the batch.
+     * @time-complexity O(1)
+     */
+    public void recordBatch(long operations, long messageBits, long largestMessageBits, long nanos) {
+        if (operations <= 0) {
+            return;
+        }
+        long latency = Math.max(0, nanos);
+        long meanLatency = latency / operations;
+        long meanMessageBits = messageBits / operations;
+        count.add(operations);
+        totalNanos.add(latency);
+        maxNanos.accumulate(latency);
+        latencyBuckets[bucket(meanLatency)].add(operations);
+        totalMessageBits.add(messageBits);
+        maxMessageBits.accumulate(largestMessageBits);
+        messageBitsBuckets[bucket(meanMessageBits)].add(operations);
+    }
+
+    /**
+     * Records one operation that failed with an exception.
+     *
+     * @post-condition The error count includes the operation.
+     * @time-complexity O(1)
+     */
+    public void recordError() {
+        errors.increment();
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    @Override
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    @Override
+    public double getMeanNanos() {
+        long n = getCount();
+        return n == 0 ? 0 : (double) getTotalNanos() / n;
+    }
+
+    @Override
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    @Override
+    public long getLatencyP50Nanos() {
+        return percentile(getLatencyHistogram(), 0.50);
+    }
+
+    @Override
+    public long getLatencyP99Nanos() {
+        return percentile(getLatencyHistogram(), 0.99);
+    }
+
+    @Override
+    public long[] getLatencyHistogram() {
+        return snapshot(latencyBuckets);
+    }
+
+    @Override
+    public long getTotalMessageBits() {
+        return totalMessageBits.sum();
+    }
+
+    @Override
+    public long getMaxMessageBits() {
+        return maxMessageBits.get();
+    }
+
+    @Override
+    public long[] getMessageBitsHistogram() {
+        return snapshot(messageBitsBuckets);
+    }
+
+    /**
+     * Clears every counter. Operations that are recorded concurrently may be partly cleared.
+     *
+     * @post-condition All counters, maxima and histograms are zero.
+     * @time-complexity O(HISTOGRAM_BUCKETS)
+     */
+    @Override
+    public void reset() {
+        count.reset();
+        errors.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+        totalMessageBits.reset();
+        maxMessageBits.reset();
+        for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+            latencyBuckets[i].reset();
+            messageBitsBuckets[i].reset();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d ok, %d errors, mean %.0f ns, p99 <= %d ns",
+                name, getCount(), getErrorCount(), getMeanNanos(), getLatencyP99Nanos());
+    }
+
+    /**
+     * Returns the histogram bucket of a non-negative value: 0 for zero, otherwise k such that the value is in
+     * [2^(k - 1), 2^k).
+     *
+     * @param value The value.
+     * @return The bucket index.
+     * @time-complexity O(1)
+     */
+    static int bucket(long value) {
+        return value <= 0 ? 0 : Math.min(HISTOGRAM_BUCKETS - 1, 64 - Long.numberOfLeadingZeros(value));
+    }
+
+    /**
+     * Returns an upper bound for the given percentile of a histogram: the exclusive upper end of the bucket holding it.
+     *
+     * @param histogram The bucket counts.
+     * @param fraction  The percentile as a fraction in (0, 1].
+     * @return The upper bound, or 0 if the histogram is empty.
+     * @time-complexity O(HISTOGRAM_BUCKETS)
+     */
+    static long percentile(long[] histogram, double fraction) {
+        long total = 0;
+        for (long bucketCount : histogram) {
+            total += bucketCount;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * fraction);
+        long seen = 0;
+        for (int k = 0; k < histogram.length; k++) {
+            seen += histogram[k];
+            if (seen >= rank) {
+                return k == 0 ? 0 : (k >= 63 ? Long.MAX_VALUE : 1L << k);
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    private static LongAdder[] newBuckets() {
+        LongAdder[] buckets = new LongAdder[HISTOGRAM_BUCKETS];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+        return buckets;
+    }
+
+    private static long[] snapshot(LongAdder[] buckets) {
+        long[] counts = new long[buckets.length];
+        for (int i = 0; i < buckets.length; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,77 @@
+package edu.cmu.andrew.mpanindr;
+
+/**
+ * The OperationMetricsMBean interface is the JMX management interface of OperationMetrics. Every getter is exposed as a
+ * read-only attribute and reset() as an operation.
+ * <p>
+ * Histograms are arrays of HISTOGRAM_BUCKETS counts. Bucket 0 counts zero values and bucket k (k >= 1) counts values in
+ * [2^(k - 1), 2^k), so percentiles read from them are accurate to within a factor of two. Operations recorded as part
+ * of a batch are placed in the histograms at the batch's mean latency and size.
+ */
+public interface OperationMetricsMBean {
+    /**
+     * Number of buckets in every histogram, enough for any non-negative long.
+     */
+    int HISTOGRAM_BUCKETS = 64;
+
+    /**
+     * Number of operations that completed successfully.
+     */
+    long getCount();
+
+    /**
+     * Number of operations that failed with an exception.
+     */
+    long getErrorCount();
+
+    /**
+     * Total time spent in successful operations, in nanoseconds.
+     */
+    long getTotalNanos();
+
+    /**
+     * Mean latency of successful operations, in nanoseconds.
+     */
+    double getMeanNanos();
+
+    /**
+     * Highest latency recorded, in nanoseconds. A batch timed as a whole contributes its total time, so after batches
+     * this is an upper bound rather than the exact slowest operation.
+     */
+    long getMaxNanos();
+
+    /**
+     * Upper bound of the median latency, in nanoseconds.
+     */
+    long getLatencyP50Nanos();
+
+    /**
+     * Upper bound of the 99th percentile latency, in nanoseconds.
+     */
+    long getLatencyP99Nanos();
+
+    /**
+     * Log2 histogram of latencies in nanoseconds.
+     */
+    long[] getLatencyHistogram();
+
+    /**
+     * Total size of all messages or keys processed, in bits.
+     */
+    long getTotalMessageBits();
+
+    /**
+     * Largest message or key processed, in bits. Batches report their largest message, so this is exact.
+     */
+    long getMaxMessageBits();
+
+    /**
+     * Log2 histogram of message or key sizes in bits.
+     */
+    long[] getMessageBitsHistogram();
+
+    /**
+     * Clears every counter and histogram.
+     */
+    void reset();
+}
@@ -3,9 +3,10 @@
 
 package edu.cmu.andrew.mpanindr;
 
-import edu.colorado.nodes.ObjectNode;
-
+import java.util.Arrays;
+import java.util.List;
 import java.util.Random;
+import java.util.stream.IntStream;
 
 /**
  * The `OrderedLinkedListOfIntegers` class implements a singly linked list of integers, where the elements are stored
@@ -14,10 +15,18 @@ import java.util.Random;
  * <p>
  * Key Features:
  * - Add integers in sorted order, ensuring that the list maintains the order after each insertion.
+ * - Bulk-load many integers at once with `addAll()`, which sorts them and splices them in with a single merge pass.
  * - Iterate through the list using methods like `reset()`, `hasNext()`, and `next()`.
- * - Merge two ordered linked lists into a single sorted list.
+ * - Merge two ordered linked lists, or any number of them, into a single sorted list.
  * - Provides a string representation of the list through the `toString()` method, showing the elements in order.
  * <p>
+ * Storage:
+ * - The list is specialized for primitive ints. Instead of one ObjectNode and one boxed Integer per element, node k is
+ * stored as value[k] and next[k] in two parallel int arrays, with NIL (-1) marking the end of the list. That is 8
+ * bytes per element instead of about 40, and the comparisons in `sortedAdd()` and `merge()` read ints directly,
+ * without unboxing. Nodes are never removed, so new nodes are simply allocated at index size(), and the arrays grow
+ * by half their length when full.
+ * <p>
  * Pre-condition:
  * - The input for `sortedAdd()` must be a valid integer, and the input lists for `merge()` must be ordered in
  * non-decreasing order. The linked list can be empty or contain one or more elements.
@@ -32,8 +41,11 @@ import java.util.Random;
  * Time Complexity:
  * - Adding an element (`sortedAdd()`) takes O(n), where n is the number of elements in the list, since the method may
  * need to traverse the list to find the insertion point.
+ * - Adding an element that is not smaller than the last one takes O(1), since the list keeps a tail index.
+ * - Adding N elements with `addAll()` takes O(N log N + n), instead of the O(N * (n + N)) of N `sortedAdd()` calls.
  * - Merging two lists (`merge()`) takes O(n + m), where n and m are the sizes of the two input lists, as the method
- * needs to traverse both lists once.
+ * traverses both lists once and appends every element at the tail.
+ * - Merging k lists holding N elements in total takes O(N log k), using a binary heap of the k list heads.
  * - Iteration methods (`reset()`, `hasNext()`, `next()`) all take O(1) time, as they only involve moving the iterator
  * or accessing the current node.
  * - The `toString()` method has O(n) complexity, where n is the number of elements in the list, since it needs to
@@ -48,19 +60,42 @@ import java.util.Random;
  * Andrew ID: mpanindr
  */
 public class OrderedLinkedListOfIntegers {
-    private ObjectNode head;
-    private ObjectNode iterator;
+    private static final int NIL = -1;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] value;
+    private int[] next;
+    private int size;
+    private int head;
+    private int tail;
+    private int iterator;
 
     /**
      * Constructor to initialize an empty ordered linked list.
      *
      * @pre-condition No pre-conditions. This constructor can be called at any time to create an empty list.
-     * @post-condition Initializes an empty linked list where both head and iterator are set to null.
+     * @post-condition Initializes an empty linked list where both head and iterator are set to NIL.
      * @time-complexity O(1) - Constant time initialization of the list.
      */
     public OrderedLinkedListOfIntegers() {
-        head = null;
-        iterator = null;
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Constructor to initialize an empty ordered linked list with room for the given number of elements.
+     *
+     * @param capacity The number of elements the list can hold before its arrays grow.
+     * @pre-condition capacity is non-negative.
+     * @post-condition Initializes an empty linked list where head, tail and iterator are set to NIL.
+     * @time-complexity O(capacity) - The arrays are allocated up front.
+     */
+    private OrderedLinkedListOfIntegers(int capacity) {
+        value = new int[capacity];
+        next = new int[capacity];
+        size = 0;
+        head = NIL;
+        tail = NIL;
+        iterator = NIL;
     }
 
     /**
@@ -74,39 +109,126 @@ public class OrderedLinkedListOfIntegers {
      * @post-condition Returns a new `OrderedLinkedListOfIntegers` that contains all the elements from both input lists,
      * merged in non-decreasing order. The input lists themselves are not modified.
      * @time-complexity O(n + m) - Where n is the number of elements in list1 and m is the number of elements in list2.
-     * The method iterates over both lists once to merge them.
+     * The method iterates over both lists once, appending each element at the tail of the merged list.
      */
     public static OrderedLinkedListOfIntegers merge(OrderedLinkedListOfIntegers list1, OrderedLinkedListOfIntegers list2) {
-        OrderedLinkedListOfIntegers mergedList = new OrderedLinkedListOfIntegers();
-        ObjectNode current1 = list1.head;
-        ObjectNode current2 = list2.head;
-
-        // Traverse both lists and add elements in sorted order
-        while (current1 != null && current2 != null) {
-            if ((int) current1.getData() <= (int) current2.getData()) {
-                mergedList.sortedAdd((int) current1.getData());
-                current1 = current1.getLink();
+        OrderedLinkedListOfIntegers mergedList = new OrderedLinkedListOfIntegers(list1.size + list2.size);
+        int current1 = list1.head;
+        int current2 = list2.head;
+
+        // Traverse both lists and append the smaller element each time
+        while (current1 != NIL && current2 != NIL) {
+            if (list1.value[current1] <= list2.value[current2]) {
+                mergedList.append(list1.value[current1]);
+                current1 = list1.next[current1];
             } else {
-                mergedList.sortedAdd((int) current2.getData());
-                current2 = current2.getLink();
+                mergedList.append(list2.value[current2]);
+                current2 = list2.next[current2];
             }
         }
 
-        // Add remaining elements from list1
-        while (current1 != null) {
-            mergedList.sortedAdd((int) current1.getData());
-            current1 = current1.getLink();
+        // Append remaining elements from list1
+        while (current1 != NIL) {
+            mergedList.append(list1.value[current1]);
+            current1 = list1.next[current1];
+        }
+
+        // Append remaining elements from list2
+        while (current2 != NIL) {
+            mergedList.append(list2.value[current2]);
+            current2 = list2.next[current2];
+        }
+
+        return mergedList;
+    }
+
+    /**
+     * Merges any number of ordered linked lists into a single ordered linked list.
+     *
+     * @param lists The sorted lists to be merged.
+     * @return OrderedLinkedListOfIntegers - A new ordered linked list containing all elements of all the lists.
+     * @pre-condition Every list is sorted in non-decreasing order, and neither lists nor any of its elements is null.
+     * @post-condition Returns a new `OrderedLinkedListOfIntegers` that contains all the elements of the input lists,
+     * merged in non-decreasing order. The input lists themselves are not modified.
+     * @time-complexity O(N log k) - Where N is the total number of elements and k is the number of lists. A binary
+     * min-heap holds the index of every list that still has elements, keyed by its current element, so each element
+     * costs one heap adjustment of O(log k).
+     */
+    public static OrderedLinkedListOfIntegers merge(List<OrderedLinkedListOfIntegers> lists) {
+        OrderedLinkedListOfIntegers[] sources = lists.toArray(new OrderedLinkedListOfIntegers[0]);
+        int total = 0;
+        for (OrderedLinkedListOfIntegers list : sources) {
+            total += list.size;
+        }
+        OrderedLinkedListOfIntegers mergedList = new OrderedLinkedListOfIntegers(total);
+
+        // cursor[i] is the next unmerged node of list i; heap holds the indices of the lists that are not exhausted
+        int[] cursor = new int[sources.length];
+        int[] heap = new int[sources.length];
+        int heapSize = 0;
+        for (int i = 0; i < sources.length; i++) {
+            cursor[i] = sources[i].head;
+            if (cursor[i] != NIL) {
+                heap[heapSize++] = i;
+            }
+        }
+        for (int i = heapSize / 2 - 1; i >= 0; i--) {
+            siftDown(heap, heapSize, i, sources, cursor);
         }
 
-        // Add remaining elements from list2
-        while (current2 != null) {
-            mergedList.sortedAdd((int) current2.getData());
-            current2 = current2.getLink();
+        // Repeatedly take the smallest current element, advance its list, and restore the heap
+        while (heapSize > 0) {
+            int smallest = heap[0];
+            OrderedLinkedListOfIntegers source = sources[smallest];
+            mergedList.append(source.value[cursor[smallest]]);
+            cursor[smallest] = source.next[cursor[smallest]];
+            if (cursor[smallest] == NIL) {
+                heap[0] = heap[--heapSize];
+            }
+            if (heapSize > 0) {
+                siftDown(heap, heapSize, 0, sources, cursor);
+            }
         }
 
         return mergedList;
     }
 
+    /**
+     * Moves heap[position] down until neither of its children holds a smaller current element.
+     *
+     * @param heap     The heap of list indices.
+     * @param heapSize The number of entries in the heap, at least 1.
+     * @param position The position to sift down from.
+     * @param sources  The lists being merged.
+     * @param cursor   The current node of every list.
+     * @time-complexity O(log k) - Where k is heapSize.
+     */
+    private static void siftDown(int[] heap, int heapSize, int position, OrderedLinkedListOfIntegers[] sources,
+                                 int[] cursor) {
+        int entry = heap[position];
+        int key = sources[entry].value[cursor[entry]];
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            int childKey = sources[heap[child]].value[cursor[heap[child]]];
+            if (child + 1 < heapSize) {
+                int rightKey = sources[heap[child + 1]].value[cursor[heap[child + 1]]];
+                if (rightKey < childKey) {
+                    child++;
+                    childKey = rightKey;
+                }
+            }
+            if (key <= childKey) {
+                break;
+            }
+            heap[position] = heap[child];
+            position = child;
+        }
+        heap[position] = entry;
+    }
+
     // Main method to demonstrate functionality
     public static void main(String[] args) {
         OrderedLinkedListOfIntegers list1 = new OrderedLinkedListOfIntegers();
@@ -114,11 +236,9 @@ public class OrderedLinkedListOfIntegers {
 
         Random rand = new Random();
 
-        // Adding 20 random values to list1 and list2
-        for (int i = 0; i < 20; i++) {
-            list1.sortedAdd(rand.nextInt(100)); // Random values between 0 and 99
-            list2.sortedAdd(rand.nextInt(100));
-        }
+        // Adding 20 random values between 0 and 99 to list1 and list2
+        list1.addAll(rand.ints(20, 0, 100));
+        list2.addAll(rand.ints(20, 0, 100));
 
         // Display the lists
         System.out.println("List 1: " + list1);
@@ -145,22 +265,148 @@ public class OrderedLinkedListOfIntegers {
      * @pre-condition The list can contain any number of elements, and the input value should be a valid integer.
      * @post-condition The integer will be inserted into the linked list while maintaining sorted order.
      * @time-complexity O(n) - The time complexity is linear since in the worst case, the method needs to traverse the entire list to find the correct insertion point.
+     * Values that are not smaller than the last element are appended at the tail in O(1).
      */
     public void sortedAdd(int value) {
-        ObjectNode newNode = new ObjectNode(value, null);
+        if (tail != NIL && this.value[tail] <= value) {
+            append(value);
+            return;
+        }
+        int newNode = allocate(value);
 
-        if (head == null || (int) head.getData() >= value) {
+        if (head == NIL || this.value[head] >= value) {
             // Insert at the beginning if the list is empty or the value is less than the head
-            newNode.setLink(head);
+            next[newNode] = head;
             head = newNode;
         } else {
             // Traverse the list to find the correct insertion point
-            ObjectNode current = head;
-            while (current.getLink() != null && (int) current.getLink().getData() < value) {
-                current = current.getLink();
+            int current = head;
+            while (next[current] != NIL && this.value[next[current]] < value) {
+                current = next[current];
             }
-            newNode.setLink(current.getLink());
-            current.setLink(newNode);
+            next[newNode] = next[current];
+            next[current] = newNode;
+        }
+        if (next[newNode] == NIL) {
+            tail = newNode;
+        }
+    }
+
+    /**
+     * Appends a value at the tail of the list.
+     *
+     * @param value The value to append.
+     * @pre-condition value is not smaller than the last element, so the list stays sorted.
+     * @post-condition The value is the last element of the list.
+     * @time-complexity O(1) amortized.
+     */
+    private void append(int value) {
+        int newNode = allocate(value);
+        if (head == NIL) {
+            head = newNode;
+        } else {
+            next[tail] = newNode;
+        }
+        tail = newNode;
+    }
+
+    /**
+     * Adds all the given integers to the list in sorted order.
+     *
+     * @param values The integers to be added. The array itself is not modified.
+     * @pre-condition values is non-null.
+     * @post-condition Every value is inserted into the linked list while maintaining sorted order.
+     * @time-complexity O(N log N + n) - Where N is the number of values and n the current size of the list. The values
+     * are sorted once and then spliced in during a single pass over the list.
+     */
+    public void addAll(int[] values) {
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        spliceSorted(sorted);
+    }
+
+    /**
+     * Adds all the integers of a stream to the list in sorted order.
+     *
+     * @param values The integers to be added; the stream is consumed.
+     * @pre-condition values is non-null and finite.
+     * @post-condition Every value is inserted into the linked list while maintaining sorted order.
+     * @time-complexity O(N log N + n) - Where N is the number of values and n the current size of the list.
+     */
+    public void addAll(IntStream values) {
+        spliceSorted(values.sorted().toArray());
+    }
+
+    /**
+     * Merges sorted values into the list in one pass, allocating a node for each and linking it in front of the first
+     * existing element that is not smaller.
+     *
+     * @param sorted The values to add, in non-decreasing order.
+     * @post-condition The list contains its previous elements and all the values, in sorted order.
+     * @time-complexity O(N + n) - Both sequences are walked once.
+     */
+    private void spliceSorted(int[] sorted) {
+        ensureCapacity(size + sorted.length);
+        int previous = NIL;
+        int current = head;
+        for (int v : sorted) {
+            while (current != NIL && value[current] < v) {
+                previous = current;
+                current = next[current];
+            }
+            int newNode = allocate(v);
+            next[newNode] = current;
+            if (previous == NIL) {
+                head = newNode;
+            } else {
+                next[previous] = newNode;
+            }
+            if (current == NIL) {
+                tail = newNode;
+            }
+            previous = newNode;
+        }
+    }
+
+    /**
+     * Returns the number of elements in the list.
+     *
+     * @return int - The number of elements.
+     * @pre-condition The list can contain any number of elements.
+     * @post-condition The list is unchanged.
+     * @time-complexity O(1) - The count is maintained as nodes are added.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Allocates an unlinked node holding the given value, growing the arrays if they are full.
+     *
+     * @param value The value of the new node.
+     * @return int - The index of the new node; its link is NIL.
+     * @time-complexity O(1) amortized - The arrays grow geometrically.
+     */
+    private int allocate(int value) {
+        if (size == this.value.length) {
+            ensureCapacity(size + (size >> 1) + 1);
+        }
+        this.value[size] = value;
+        next[size] = NIL;
+        return size++;
+    }
+
+    /**
+     * Grows the arrays so they can hold at least the given number of elements.
+     *
+     * @param capacity The required capacity.
+     * @post-condition value.length and next.length are at least capacity.
+     * @time-complexity O(capacity) when the arrays grow, O(1) otherwise.
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity > value.length) {
+            value = Arrays.copyOf(value, capacity);
+            next = Arrays.copyOf(next, capacity);
         }
     }
 
@@ -184,7 +430,7 @@ public class OrderedLinkedListOfIntegers {
      * @time-complexity O(1) - Checking the next element in the list is constant time.
      */
     public boolean hasNext() {
-        return iterator != null;
+        return iterator != NIL;
     }
 
     /**
@@ -196,11 +442,11 @@ public class OrderedLinkedListOfIntegers {
      * @time-complexity O(1) - Accessing the next element is constant time.
      */
     public Integer next() {
-        if (iterator == null) {
+        if (iterator == NIL) {
             return null;
         }
-        int data = (int) iterator.getData();
-        iterator = iterator.getLink();
+        int data = value[iterator];
+        iterator = next[iterator];
         return data;
     }
 
@@ -216,14 +462,14 @@ public class OrderedLinkedListOfIntegers {
     @Override
     public String toString() {
         StringBuilder result = new StringBuilder("[");
-        ObjectNode temp = head;
+        int temp = head;
 
-        while (temp != null) {
-            result.append(temp.getData());
-            if (temp.getLink() != null) {
+        while (temp != NIL) {
+            result.append(value[temp]);
+            if (next[temp] != NIL) {
                 result.append(" -> ");
             }
-            temp = temp.getLink();
+            temp = next[temp];
         }
 
         result.append("]");
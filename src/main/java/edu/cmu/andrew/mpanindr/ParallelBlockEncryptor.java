@@ -0,0 +1,146 @@
+package edu.cmu.andrew.mpanindr;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The ParallelBlockEncryptor class encrypts large messages block by block on a ForkJoinPool.
+ * <p>
+ * A message is split into blocks of publicKey.blockSize() bytes exactly as KnapsackStreams does. The subset-sum of each
+ * block is independent of every other block, so the range of blocks is split recursively until a range holds no more
+ * than the configured threshold of blocks, and those ranges are encrypted concurrently. Each result is written into its
+ * own slot of the output array, so the ciphertexts come back in message order without any reassembly step.
+ * <p>
+ * Time Complexity:
+ * - O(n / p) wall-clock time for n message bits on p worker threads, plus O(log(blocks / threshold)) for the splits.
+ */
+public final class ParallelBlockEncryptor {
+    /**
+     * Default number of blocks below which a range is encrypted sequentially instead of being split further.
+     */
+    public static final int DEFAULT_THRESHOLD = 8;
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    /**
+     * Creates an encryptor that runs on the common pool with the default threshold.
+     *
+     * @post-condition The encryptor uses ForkJoinPool.commonPool() and DEFAULT_THRESHOLD.
+     * @time-complexity O(1)
+     */
+    public ParallelBlockEncryptor() {
+        this(ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Creates an encryptor that runs on the given pool.
+     *
+     * @param pool      The pool to run on.
+     * @param threshold The largest number of blocks a single task encrypts without splitting.
+     * @pre-condition pool is non-null and threshold is at least 1.
+     * @post-condition The encryptor is ready and can be shared across threads.
+     * @time-complexity O(1)
+     */
+    public ParallelBlockEncryptor(ForkJoinPool pool, int threshold) {
+        if (pool == null) {
+            throw new IllegalArgumentException("pool must not be null");
+        }
+        if (threshold < 1) {
+            throw new IllegalArgumentException("threshold must be at least 1");
+        }
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Encrypts a message as a sequence of blocks in parallel.
+     *
+     * @param message   The message bytes.
+     * @param publicKey The public key; it must cover at least one byte (8 elements).
+     * @return One ciphertext per block, in message order. Every block is publicKey.blockSize() bytes long except possibly
+     * the last one.
+     * @pre-condition publicKey.blockSize() is at least 1.
+     * @post-condition The message and key remain unchanged.
+     * @time-complexity O(n / p) - See the class description.
+     */
+    public BigInteger[] encryptBlocks(byte[] message, PublicKey publicKey) {
+        int blockSize = publicKey.blockSize();
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Public key is too small to encrypt a single byte");
+        }
+        int blocks = (int) (((long) message.length + blockSize - 1) / blockSize);
+        BigInteger[] cipherTexts = new BigInteger[blocks];
+        if (blocks > 0) {
+            pool.invoke(new EncryptTask(message, publicKey, cipherTexts, 0, blocks));
+        }
+        return cipherTexts;
+    }
+
+    /**
+     * Encrypts a message in parallel and writes it in the stream format of KnapsackStreams, so the output can be read
+     * back with KnapsackStreams.decrypt().
+     *
+     * @param message   The message bytes.
+     * @param out       The ciphertext sink. It is flushed but not closed.
+     * @param publicKey The public key; it must cover at least one byte (8 elements).
+     * @throws IOException If writing fails.
+     * @pre-condition publicKey.blockSize() is at least 1.
+     * @post-condition out holds a complete encrypted stream, including the header and trailer.
+     * @time-complexity O(n / p) for the encryption plus O(c) to write c ciphertext bytes.
+     */
+    public void encrypt(byte[] message, OutputStream out, PublicKey publicKey) throws IOException {
+        BigInteger[] cipherTexts = encryptBlocks(message, publicKey);
+        int blockSize = publicKey.blockSize();
+
+        DataOutputStream data = new DataOutputStream(out);
+        KnapsackStreams.writeHeader(data, blockSize);
+        for (int i = 0; i < cipherTexts.length; i++) {
+            int plainLength = Math.min(blockSize, message.length - i * blockSize);
+            KnapsackStreams.writeBlock(data, plainLength, cipherTexts[i]);
+        }
+        KnapsackStreams.writeTrailer(data);
+        data.flush();
+    }
+
+    /**
+     * Encrypts the blocks in [from, to), splitting the range in half while it is larger than the threshold.
+     */
+    private final class EncryptTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final byte[] message;
+        private final PublicKey publicKey;
+        private final BigInteger[] cipherTexts;
+        private final int from;
+        private final int to;
+
+        EncryptTask(byte[] message, PublicKey publicKey, BigInteger[] cipherTexts, int from, int to) {
+            this.message = message;
+            this.publicKey = publicKey;
+            this.cipherTexts = cipherTexts;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= threshold) {
+                int blockSize = publicKey.blockSize();
+                for (int i = from; i < to; i++) {
+                    int offset = i * blockSize;
+                    int length = Math.min(blockSize, message.length - offset);
+                    cipherTexts[i] = MerkleHellmanKnapsack.encrypt(message, offset, length, publicKey);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new EncryptTask(message, publicKey, cipherTexts, from, middle),
+                    new EncryptTask(message, publicKey, cipherTexts, middle, to));
+        }
+    }
+}
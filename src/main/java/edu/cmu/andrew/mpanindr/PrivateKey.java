@@ -0,0 +1,140 @@
+package edu.cmu.andrew.mpanindr;
+
+import java.math.BigInteger;
+
+/**
+ * The PrivateKey class holds the private half of a Merkle-Hellman key: the super-increasing sequence w together with
+ * the multiplier r and the modulus q used to disguise it.
+ * <p>
+ * The sequence is stored in an indexed array so that the greedy subset-sum solver can walk it backwards in linear time.
+ * Instances are immutable and can be shared safely across threads.
+ * <p>
+ * Pre-condition:
+ * - w must be super-increasing, q must be greater than the sum of w, and r must be coprime with q. These invariants are
+ * established by the key generator and are not re-validated here, apart from basic null and sign checks.
+ * <p>
+ * Time Complexity:
+ * - Construction is O(n), where n is the number of elements in the sequence.
+ * - Indexed access, size(), getR() and getQ() are O(1).
+ * - Deriving the public key with publicKey() is O(n) multiplications and reductions.
+ */
+public final class PrivateKey {
+    private final BigInteger[] w;
+    private final BigInteger r;
+    private final BigInteger q;
+
+    /**
+     * Creates a private key from the super-increasing sequence and the modular parameters.
+     *
+     * @param w The super-increasing sequence w_0 .. w_(n-1).
+     * @param r The multiplier, coprime with q.
+     * @param q The modulus, greater than the sum of all w_i.
+     * @pre-condition None of the arguments are null, and q is positive.
+     * @post-condition A new immutable key is created holding a private copy of w.
+     * @time-complexity O(n) - The sequence is copied once.
+     */
+    public PrivateKey(BigInteger[] w, BigInteger r, BigInteger q) {
+        if (r == null || q == null) {
+            throw new IllegalArgumentException("r and q must not be null");
+        }
+        if (q.signum() <= 0) {
+            throw new IllegalArgumentException("q must be positive");
+        }
+        this.w = w.clone();
+        for (BigInteger element : this.w) {
+            if (element == null) {
+                throw new IllegalArgumentException("Private key elements must not be null");
+            }
+        }
+        this.r = r;
+        this.q = q;
+    }
+
+    /**
+     * Builds a private key from a SinglyLinkedList holding the super-increasing sequence, as produced by the original
+     * key generation.
+     *
+     * @param wList A SinglyLinkedList containing the BigInteger elements of the super-increasing sequence in order.
+     * @param r     The multiplier, coprime with q.
+     * @param q     The modulus, greater than the sum of all w_i.
+     * @return A new PrivateKey holding the same sequence and parameters.
+     * @pre-condition Every element of wList is a non-null BigInteger.
+     * @post-condition The list is unchanged.
+     * @time-complexity O(n) - The list is walked once with an iterator rather than by index.
+     */
+    public static PrivateKey fromList(SinglyLinkedList<BigInteger> wList, BigInteger r, BigInteger q) {
+        return new PrivateKey(PublicKey.toArray(wList), r, q);
+    }
+
+    /**
+     * Derives the matching public key using b_i = (r * w_i) % q.
+     *
+     * @return A new PublicKey corresponding to this private key.
+     * @time-complexity O(n) - One multiplication and one reduction per element.
+     */
+    public PublicKey publicKey() {
+        BigInteger[] b = new BigInteger[w.length];
+        for (int i = 0; i < w.length; i++) {
+            b[i] = r.multiply(w[i]).mod(q);
+        }
+        return new PublicKey(b);
+    }
+
+    /**
+     * Returns the number of elements in the super-increasing sequence.
+     *
+     * @return The number of private-key elements.
+     * @time-complexity O(1)
+     */
+    public int size() {
+        return w.length;
+    }
+
+    /**
+     * Returns the number of whole message bytes this key can decrypt as a single block.
+     *
+     * @return size() / 8.
+     * @time-complexity O(1)
+     */
+    public int blockSize() {
+        return w.length / 8;
+    }
+
+    /**
+     * Returns the element of the super-increasing sequence at the given index.
+     *
+     * @param i The index of the element.
+     * @return The element w_i.
+     * @throws IndexOutOfBoundsException If i is negative or not less than size().
+     * @time-complexity O(1) - Direct array access.
+     */
+    public BigInteger get(int i) {
+        return w[i];
+    }
+
+    /**
+     * Returns the multiplier r.
+     *
+     * @return The multiplier r.
+     * @time-complexity O(1)
+     */
+    public BigInteger getR() {
+        return r;
+    }
+
+    /**
+     * Returns the modulus q.
+     *
+     * @return The modulus q.
+     * @time-complexity O(1)
+     */
+    public BigInteger getQ() {
+        return q;
+    }
+
+    @Override
+    public String toString() {
+        // Never print the secret values themselves
+        return "PrivateKey[size=" + w.length + "]";
+    }
+}
@@ -0,0 +1,136 @@
+package edu.cmu.andrew.mpanindr;
+
+import java.math.BigInteger;
+
+/**
+ * The PublicKey class holds the public half of a Merkle-Hellman key: the sequence b_i = (r * w_i) % q.
+ * <p>
+ * Unlike the SinglyLinkedList used by the original key-generation code, the elements are stored in an indexed array,
+ * so encryption can look up b_i in constant time instead of walking the list from the head for every bit.
+ * <p>
+ * Instances are immutable: the array is copied on construction and never exposed, so a single key can be shared
+ * across threads without any external locking.
+ * <p>
+ * Time Complexity:
+ * - Construction is O(n), where n is the number of elements in the key.
+ * - Indexed access with get() and size() are O(1).
+ */
+public final class PublicKey {
+    private final BigInteger[] b;
+    private final int[][] limbs;
+    private final int maxLimbs;
+
+    /**
+     * Creates a public key from the given sequence of public-key elements.
+     *
+     * @param b The public-key elements b_0 .. b_(n-1).
+     * @pre-condition b is non-null and contains no null or negative elements.
+     * @post-condition A new immutable key is created holding a private copy of b, along with each element in the limb
+     * form used by LimbAccumulator.
+     * @time-complexity O(n) - The elements are copied and converted once.
+     */
+    public PublicKey(BigInteger[] b) {
+        this.b = b.clone();
+        this.limbs = new int[this.b.length][];
+        int widest = 0;
+        for (int i = 0; i < this.b.length; i++) {
+            BigInteger element = this.b[i];
+            if (element == null || element.signum() < 0) {
+                throw new IllegalArgumentException("Public key elements must be non-null and non-negative");
+            }
+            limbs[i] = LimbAccumulator.toLimbs(element);
+            widest = Math.max(widest, limbs[i].length);
+        }
+        this.maxLimbs = widest;
+    }
+
+    /**
+     * Builds a public key from a SinglyLinkedList of BigInteger values, as produced by the original key generation.
+     *
+     * @param bList A SinglyLinkedList containing the BigInteger public-key elements in order.
+     * @return A new PublicKey holding the same elements.
+     * @pre-condition Every element of bList is a non-null BigInteger.
+     * @post-condition The list is unchanged.
+     * @time-complexity O(n) - The list is walked once with an iterator rather than by index.
+     */
+    public static PublicKey fromList(SinglyLinkedList<BigInteger> bList) {
+        return new PublicKey(toArray(bList));
+    }
+
+    /**
+     * Copies a SinglyLinkedList of BigInteger values into an array in a single pass.
+     *
+     * @param list The list to copy.
+     * @return An array holding the list's elements in order.
+     * @post-condition The list is unchanged. Its own iterator is used, so its built-in cursor is not disturbed.
+     * @time-complexity O(n) - Each node is visited exactly once.
+     */
+    static BigInteger[] toArray(SinglyLinkedList<BigInteger> list) {
+        BigInteger[] result = new BigInteger[list.countNodes()];
+        int i = 0;
+        for (BigInteger element : list) {
+            result[i++] = element;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of elements in the key, which is the maximum number of message bits it can encrypt.
+     *
+     * @return The number of public-key elements.
+     * @time-complexity O(1)
+     */
+    public int size() {
+        return b.length;
+    }
+
+    /**
+     * Returns the number of whole message bytes this key can encrypt as a single block.
+     *
+     * @return size() / 8.
+     * @time-complexity O(1)
+     */
+    public int blockSize() {
+        return b.length / 8;
+    }
+
+    /**
+     * Returns the public-key element at the given index.
+     *
+     * @param i The index of the element, with 0 corresponding to the first message bit.
+     * @return The element b_i.
+     * @throws IndexOutOfBoundsException If i is negative or not less than size().
+     * @time-complexity O(1) - Direct array access.
+     */
+    public BigInteger get(int i) {
+        return b[i];
+    }
+
+    /**
+     * Returns the public-key element at the given index as little-endian 32-bit limbs. The array is shared and must
+     * not be modified.
+     *
+     * @param i The index of the element.
+     * @return The limbs of b_i.
+     * @time-complexity O(1)
+     */
+    int[] limbs(int i) {
+        return limbs[i];
+    }
+
+    /**
+     * Returns the number of limbs an accumulator needs so that summing any subset of the key never has to grow it.
+     * Each element has at most maxLimbs limbs, and fewer than 2^32 of them are added, so one extra limb holds the carry.
+     *
+     * @return The accumulator capacity in limbs.
+     * @time-complexity O(1)
+     */
+    int accumulatorCapacity() {
+        return maxLimbs + 1;
+    }
+
+    @Override
+    public String toString() {
+        return "PublicKey[size=" + b.length + "]";
+    }
+}
@@ -5,37 +5,49 @@ package edu.cmu.andrew.mpanindr;
 
 import edu.colorado.nodes.ObjectNode;
 
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
 /**
- * The SinglyLinkedList class represents a singly linked list where each node points to the next node in the list.
- * It supports operations such as adding nodes to the front or end, retrieving nodes by index, counting nodes,
- * and iterating through the list.
+ * The SinglyLinkedList class is a generic singly linked list of elements of type T, where each node points to the next
+ * node in the list. It keeps references to both the head and the tail, so elements can be added at either end in
+ * constant time.
  * <p>
  * This class utilizes the ObjectNode class to represent individual nodes, which hold both the data and a link to the next node.
+ * The list is type-parameterized, so elements come back as T without casts at the call site.
+ * <p>
+ * Thread safety: a list that is no longer modified can be traversed by any number of threads at once through
+ * iterator(), since every iterator keeps its own position. getObjectAt() is safe as well, because its cached position
+ * is published as one immutable object. The built-in cursor used by reset(), hasNext() and next() is shared state and
+ * is only suitable for single-threaded use.
  * <p>
  * Key Features:
- * - Adding nodes to the front or end of the list.
- * - Counting nodes and retrieving data from specific nodes by index.
- * - Duplicating the last node of the list.
- * - Iterating through the list with methods like reset(), hasNext(), and next().
- * - Retrieving all nodes as an ArrayList of Strings for easier handling.
- * - Provides a string representation of the list with the toString() method.
+ * - Adding elements to the front (addAtFrontNode()) or end (addAtEndNode()) of the list.
+ * - Counting elements (countNodes()), and reading the last element (getLast()) or the element at an index
+ * (getObjectAt()).
+ * - Implementing Iterable&lt;T&gt;, so the list works in for-each loops with independent iterators that fail fast
+ * with ConcurrentModificationException when the list is modified after they were created.
+ * - Iterating with the built-in cursor methods reset(), hasNext() and next().
+ * - Providing a string representation of the list with the toString() method.
  * <p>
  * Pre-condition:
  * - The data added to the list should not be null (although the class does not explicitly check this).
- * - For some operations like retrieving nodes, the index must be within valid bounds.
+ * - For indexed retrieval, the index must be within valid bounds.
  * <p>
  * Post-condition:
- * - The list maintains an ordered collection of nodes, and operations like adding, retrieving, and iterating work as expected.
+ * - addAtFrontNode() places an element before all others and addAtEndNode() after all others; nothing else reorders
+ * the list.
  * <p>
  * Time Complexity:
- * - Most operations such as adding to the front or end, or resetting the iterator are O(1) as they only modify or access single nodes.
- * - Retrieving nodes by index and iteration methods have a time complexity of O(n), where n is the number of nodes in the list.
- * - The toString() method also operates in O(n) time, as it needs to traverse all nodes to generate the string.
+ * - Adding to the front or end, counting, getLast() and resetting the cursor are O(1).
+ * - Retrieving elements by index is O(1) amortized for sequential or nearby forward access, since the list remembers the
+ * last node it returned by index; a jump backwards restarts from the head and costs O(i).
+ * - Iterating through the whole list, and toString(), cost O(n), where n is the number of elements in the list.
  * <p>
  * Example Usage:
- * - A SinglyLinkedList can be initialized and populated with data by adding nodes.
- * - The class provides convenient methods for counting nodes, retrieving nodes by index, and iterating through the list.
- * - It is commonly used for linear data structures where each element points to the next, making it efficient for ordered traversal.
+ * - A SinglyLinkedList&lt;BigInteger&gt; holds key elements: fill it with addAtEndNode() and read it with a for-each
+ * loop or getObjectAt().
  * <p>
  * Note:
  * - This implementation assumes that null values are not used as node data, although they are technically allowed.
@@ -44,11 +56,13 @@ import edu.colorado.nodes.ObjectNode;
  * Author: Manjunath K P
  * Andrew ID: mpanindr
  */
-public class SinglyLinkedList {
+public class SinglyLinkedList<T> implements Iterable<T> {
     private ObjectNode head;
     private ObjectNode tail;
     private int countNodes;
     private ObjectNode iterator;
+    private Cursor cursor;  // Position most recently returned by getObjectAt(), or null
+    private int modCount;  // Number of structural modifications, checked by iterators
 
     /**
      * Constructor for the SinglyLinkedList class.
@@ -68,6 +82,8 @@ public class SinglyLinkedList {
         tail = null;
         countNodes = 0;
         iterator = null;
+        cursor = null;
+        modCount = 0;
     }
 
     /**
@@ -88,7 +104,7 @@ public class SinglyLinkedList {
      * @time-complexity
      *   O(1) - The method operates in constant time because it only updates the tail of the list and increments the node count.
      */
-    public void addAtEndNode(Object c) {
+    public void addAtEndNode(T c) {
         ObjectNode newNode = new ObjectNode(c, null);
 
         // Update the tail to the new node
@@ -100,6 +116,7 @@ public class SinglyLinkedList {
         tail = newNode;
 
         countNodes++;
+        modCount++;
     }
 
     /**
@@ -119,7 +136,7 @@ public class SinglyLinkedList {
      * @time-complexity
      *   O(1) - The method operates in constant time because it only updates the head and possibly the tail of the list.
      */
-    public void addAtFrontNode(Object c) {
+    public void addAtFrontNode(T c) {
         ObjectNode newNode = new ObjectNode(c, head); // The new node points to the current head
 
         if (head == null) { // If the list is empty, set tail to the new node
@@ -128,6 +145,12 @@ public class SinglyLinkedList {
 
         head = newNode; // Update the head to the new node
         countNodes++;
+        modCount++;
+        Cursor cached = cursor;
+        if (cached != null) {
+            // The cached node is unchanged but now sits one position further from the head
+            cursor = new Cursor(cached.node, cached.index + 1);
+        }
     }
 
     /**
@@ -164,9 +187,9 @@ public class SinglyLinkedList {
      * @time-complexity
      *   O(1) - The method operates in constant time because it directly accesses the tail reference.
      */
-    public Object getLast() {
+    public T getLast() {
         if (tail != null) {
-            return tail.getData();
+            return dataOf(tail);
         }
         return null; // Return null if the list is empty
     }
@@ -190,19 +213,32 @@ public class SinglyLinkedList {
      *   The method returns the data stored at the specified index without modifying the list.
      *
      * @time-complexity
-     *   O(n) - The method has linear time complexity since it may need to traverse through up to n nodes to reach the target index.
+     *   O(1) amortized for sequential or nearby forward access - The walk starts from the node returned by the previous
+     *   call when it lies at or before index i, so an indexed loop over the whole list costs O(n) in total.
+     *   The last node is reached directly through the tail. Otherwise the walk starts from the head and costs O(i).
      */
-    public Object getObjectAt(int i) {
+    public T getObjectAt(int i) {
         if (i < 0 || i >= countNodes) {
             throw new IndexOutOfBoundsException("Index out of bounds");
         }
+        if (i == countNodes - 1) {
+            return dataOf(tail);
+        }
 
+        // Resume from the cached node when it is not past the target, otherwise start over from the head
         ObjectNode current = head;
-        for (int index = 0; index < i; index++) {
+        int index = 0;
+        Cursor cached = cursor;
+        if (cached != null && cached.index <= i) {
+            current = cached.node;
+            index = cached.index;
+        }
+        for (; index < i; index++) {
             current = current.getLink();
         }
 
-        return current.getData();
+        cursor = new Cursor(current, i);
+        return dataOf(current);
     }
 
     /**
@@ -255,16 +291,37 @@ public class SinglyLinkedList {
      * @time-complexity
      *   O(1) - It retrieves the data and advances the iterator in constant time.
      */
-    public Object next() {
+    public T next() {
         if (iterator == null) {
             return null;
         }
 
-        Object data = iterator.getData();
+        T data = dataOf(iterator);
         iterator = iterator.getLink();
         return data;
     }
 
+    /**
+     * Returns a new iterator over the list, from the head to the tail. Each iterator keeps its own position, so several
+     * can traverse the list at once, and none of them disturbs the built-in cursor used by reset() and next().
+     *
+     * @return
+     *   A fail-fast iterator over the elements of the list.
+     *
+     * @pre-condition
+     *   The list may be empty or non-empty.
+     *
+     * @post-condition
+     *   The list is unchanged. The iterator throws ConcurrentModificationException if the list is modified afterwards.
+     *
+     * @time-complexity
+     *   O(1) - Each call to the iterator's next() is also O(1).
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new NodeIterator();
+    }
+
     /**
      * Converts the entire linked list to a human-readable string format where each node's data is displayed.
      * The data is shown in the format: [data1 -> data2 -> ... -> dataN].
@@ -299,10 +356,54 @@ public class SinglyLinkedList {
         return result.toString();
     }
 
+    @SuppressWarnings("unchecked")
+    private static <T> T dataOf(ObjectNode node) {
+        return (T) node.getData();  // Only elements of type T are ever stored
+    }
+
+    /**
+     * An immutable (node, index) pair, so readers on other threads always see a node together with its own index.
+     */
+    private static final class Cursor {
+        private final ObjectNode node;
+        private final int index;
+
+        private Cursor(ObjectNode node, int index) {
+            this.node = node;
+            this.index = index;
+        }
+    }
+
+    /**
+     * Iterator with its own position that fails fast when the list is structurally modified.
+     */
+    private final class NodeIterator implements Iterator<T> {
+        private ObjectNode nextNode = head;
+        private final int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return nextNode != null;
+        }
+
+        @Override
+        public T next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (nextNode == null) {
+                throw new NoSuchElementException();
+            }
+            T data = dataOf(nextNode);
+            nextNode = nextNode.getLink();
+            return data;
+        }
+    }
+
     // Test Driver: Testing with BigInteger data and a list of lists
     public static void main(String[] args) {
         // Create a new SinglyLinkedList
-        SinglyLinkedList list = new SinglyLinkedList();
+        SinglyLinkedList<Character> list = new SinglyLinkedList<>();
 
         char start = 'b';
         for (int i = 1; i < 24; i++) {
@@ -0,0 +1,69 @@
+package edu.cmu.andrew.mpanindr;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CryptoEventsTest {
+
+    @TempDir
+    Path directory;
+
+    // Test that key generation, encryption and decryption emit flight recorder events with their sizes
+    @Test
+    void testEventsAreRecorded() throws IOException {
+        Path file = directory.resolve("crypto.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("edu.cmu.andrew.mpanindr.KeyGeneration");
+            recording.enable("edu.cmu.andrew.mpanindr.Encrypt");
+            recording.enable("edu.cmu.andrew.mpanindr.Decrypt");
+            recording.start();
+
+            KeyPair keyPair = TestKeys.generate(32);
+            BigInteger cipherText = MerkleHellmanKnapsack.encrypt(new byte[]{1, 2}, keyPair.getPublicKey());
+            MerkleHellmanKnapsack.decryptBytes(cipherText, keyPair.getPrivateKey());
+            assertThrows(IllegalArgumentException.class, () -> MerkleHellmanKnapsack.decryptBytes(
+                    keyPair.getPrivateKey().getQ().subtract(BigInteger.ONE), keyPair.getPrivateKey()));
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        RecordedEvent keyGeneration = only(events, "edu.cmu.andrew.mpanindr.KeyGeneration");
+        assertEquals(32, keyGeneration.getInt("keySize"));
+        assertTrue(keyGeneration.getInt("modulusBits") > 0);
+        assertTrue(keyGeneration.getInt("coprimeRetries") >= 0);
+
+        RecordedEvent encrypt = only(events, "edu.cmu.andrew.mpanindr.Encrypt");
+        assertEquals(16, encrypt.getLong("messageBits"));
+        assertEquals(32, encrypt.getInt("keySize"));
+
+        List<RecordedEvent> decrypts = named(events, "edu.cmu.andrew.mpanindr.Decrypt");
+        assertEquals(2, decrypts.size());
+        assertEquals(1, decrypts.stream().filter(e -> e.getBoolean("succeeded")).count());
+        assertTrue(decrypts.stream().allMatch(e -> e.getInt("keySize") == 32 && !e.hasField("messageBits")));
+    }
+
+    private static RecordedEvent only(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matching = named(events, name);
+        assertEquals(1, matching.size(), name);
+        return matching.get(0);
+    }
+
+    private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+        return events.stream()
+                .filter(e -> e.getEventType().getName().equals(name))
+                .collect(Collectors.toList());
+    }
+}
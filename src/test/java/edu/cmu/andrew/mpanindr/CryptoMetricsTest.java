@@ -0,0 +1,127 @@
+package edu.cmu.andrew.mpanindr;
+
+import org.junit.jupiter.api.Test;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import java.lang.management.ManagementFactory;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CryptoMetricsTest {
+
+    // Test that key generation, encryption and decryption are counted with their sizes
+    @Test
+    void testOperationsAreRecorded() {
+        long generated = CryptoMetrics.KEY_GENERATION.getCount();
+        long encrypted = CryptoMetrics.ENCRYPTION.getCount();
+        long encryptedBits = CryptoMetrics.ENCRYPTION.getTotalMessageBits();
+        long decrypted = CryptoMetrics.DECRYPTION.getCount();
+
+        KeyPair keyPair = TestKeys.generate(64);
+        BigInteger cipherText = MerkleHellmanKnapsack.encrypt("metrics".getBytes(StandardCharsets.UTF_8),
+                keyPair.getPublicKey());
+        MerkleHellmanKnapsack.decryptBytes(cipherText, new DecryptionContext(keyPair.getPrivateKey()));
+
+        assertEquals(generated + 1, CryptoMetrics.KEY_GENERATION.getCount());
+        assertEquals(encrypted + 1, CryptoMetrics.ENCRYPTION.getCount());
+        assertEquals(encryptedBits + 56, CryptoMetrics.ENCRYPTION.getTotalMessageBits());
+        assertEquals(decrypted + 1, CryptoMetrics.DECRYPTION.getCount());
+    }
+
+    // Test that failed operations are counted as errors rather than successes
+    @Test
+    void testErrorsAreRecorded() {
+        KeyPair keyPair = TestKeys.generate(16);
+        long encryptErrors = CryptoMetrics.ENCRYPTION.getErrorCount();
+        long decryptErrors = CryptoMetrics.DECRYPTION.getErrorCount();
+        long decrypted = CryptoMetrics.DECRYPTION.getCount();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> MerkleHellmanKnapsack.encrypt(new byte[3], keyPair.getPublicKey()));
+        assertThrows(IllegalArgumentException.class,
+                () -> MerkleHellmanKnapsack.decryptBytes(keyPair.getPrivateKey().getQ().subtract(BigInteger.ONE),
+                        keyPair.getPrivateKey()));
+
+        assertEquals(encryptErrors + 1, CryptoMetrics.ENCRYPTION.getErrorCount());
+        assertEquals(decryptErrors + 1, CryptoMetrics.DECRYPTION.getErrorCount());
+        assertEquals(decrypted, CryptoMetrics.DECRYPTION.getCount());
+    }
+
+    // Test that batch and table encryption are counted once per message with the batch's total size
+    @Test
+    void testBulkEncryptionIsRecorded() {
+        KeyPair keyPair = TestKeys.generate(64);
+        EncryptionTable table = EncryptionTable.build(keyPair.getPublicKey(), 8);
+        List<byte[]> messages = List.of(new byte[8], new byte[]{1, 2, 3}, new byte[0]);
+        BigInteger[] out = new BigInteger[messages.size()];
+        long encrypted = CryptoMetrics.ENCRYPTION.getCount();
+        long encryptedBits = CryptoMetrics.ENCRYPTION.getTotalMessageBits();
+        long encryptErrors = CryptoMetrics.ENCRYPTION.getErrorCount();
+
+        MerkleHellmanKnapsack.encryptBatch(messages, keyPair.getPublicKey(), out);
+        MerkleHellmanKnapsack.encryptBatch(messages, table, out);
+        table.encrypt(new byte[2]);
+        assertThrows(IllegalArgumentException.class, () -> table.encrypt(new byte[9]));
+        assertThrows(IllegalArgumentException.class,
+                () -> MerkleHellmanKnapsack.encryptBatch(List.of(new byte[9]), table, out));
+
+        assertEquals(encrypted + 7, CryptoMetrics.ENCRYPTION.getCount());
+        assertEquals(encryptedBits + 2 * 88 + 16, CryptoMetrics.ENCRYPTION.getTotalMessageBits());
+        assertEquals(encryptErrors + 2, CryptoMetrics.ENCRYPTION.getErrorCount());
+    }
+
+    // Test that a batch is spread over the histograms at its mean, while the maxima stay upper bounds
+    @Test
+    void testBatchHistograms() {
+        OperationMetrics metrics = new OperationMetrics("Test");
+        metrics.recordBatch(4, 64, 40, 400);
+        metrics.recordBatch(0, 0, 0, 100);
+
+        assertEquals(4, metrics.getCount());
+        assertEquals(400, metrics.getTotalNanos());
+        assertEquals(4, metrics.getLatencyHistogram()[OperationMetrics.bucket(100)]);
+        assertEquals(400, metrics.getMaxNanos());
+        assertEquals(64, metrics.getTotalMessageBits());
+        assertEquals(40, metrics.getMaxMessageBits());
+        assertEquals(4, metrics.getMessageBitsHistogram()[OperationMetrics.bucket(16)]);
+    }
+
+    // Test the histogram buckets, percentiles and maxima of a single metrics instance
+    @Test
+    void testHistograms() {
+        OperationMetrics metrics = new OperationMetrics("Test");
+        metrics.recordSuccess(8, 100);
+        metrics.recordSuccess(8, 100);
+        metrics.recordSuccess(1024, 5000);
+
+        assertEquals(3, metrics.getCount());
+        assertEquals(3, Arrays.stream(metrics.getLatencyHistogram()).sum());
+        assertEquals(2, metrics.getLatencyHistogram()[OperationMetrics.bucket(100)]);
+        assertEquals(128, metrics.getLatencyP50Nanos());
+        assertEquals(8192, metrics.getLatencyP99Nanos());
+        assertEquals(5000, metrics.getMaxNanos());
+        assertEquals(1040, metrics.getTotalMessageBits());
+        assertEquals(1024, metrics.getMaxMessageBits());
+
+        metrics.reset();
+        assertEquals(0, metrics.getCount());
+        assertEquals(0, metrics.getLatencyP99Nanos());
+    }
+
+    // Test that the metrics are readable through the platform MBean server
+    @Test
+    void testMBeansAreRegistered() throws JMException {
+        MerkleHellmanKnapsack.encrypt(new byte[]{1}, TestKeys.generate(8).getPublicKey());
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+        assertTrue(server.isRegistered(CryptoMetrics.objectName(CryptoMetrics.KEY_GENERATION)));
+        assertTrue(server.isRegistered(CryptoMetrics.objectName(CryptoMetrics.DECRYPTION)));
+        long count = (Long) server.getAttribute(CryptoMetrics.objectName(CryptoMetrics.ENCRYPTION), "Count");
+        assertTrue(count >= 1);
+    }
+}
@@ -0,0 +1,50 @@
+package edu.cmu.andrew.mpanindr;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DecryptionContextTest {
+
+    private static final KeyPair KEY_PAIR = TestKeys.generate(10 * 8);
+
+    // Test that Barrett reduction agrees with BigInteger.mod over the whole supported range
+    @Test
+    void testReduceMatchesMod() {
+        DecryptionContext context = new DecryptionContext(KEY_PAIR.getPrivateKey());
+        BigInteger q = KEY_PAIR.getPrivateKey().getQ();
+        Random random = new Random(3);
+        for (int i = 0; i < 1000; i++) {
+            BigInteger x = new BigInteger(random.nextInt(2 * q.bitLength()) + 1, random);
+            assertEquals(x.mod(q), context.reduce(x));
+        }
+        assertEquals(BigInteger.ZERO, context.reduce(q));
+        assertEquals(q.subtract(BigInteger.ONE), context.reduce(q.multiply(q).subtract(BigInteger.ONE)));
+    }
+
+    // Test that values outside the Barrett range fall back to mod
+    @Test
+    void testReduceOutOfRangeValues() {
+        DecryptionContext context = new DecryptionContext(KEY_PAIR.getPrivateKey());
+        BigInteger q = KEY_PAIR.getPrivateKey().getQ();
+        BigInteger huge = q.pow(3).add(BigInteger.TEN);
+        assertEquals(huge.mod(q), context.reduce(huge));
+        assertEquals(BigInteger.valueOf(-5).mod(q), context.reduce(BigInteger.valueOf(-5)));
+    }
+
+    // Test that decrypting through a context matches decrypting with the private key directly
+    @Test
+    void testDecryptWithContextMatchesPrivateKey() {
+        byte[] message = "Context ok".getBytes(StandardCharsets.UTF_8);
+        BigInteger cipherText = MerkleHellmanKnapsack.encrypt(message, KEY_PAIR.getPublicKey());
+        DecryptionContext context = new DecryptionContext(KEY_PAIR.getPrivateKey());
+
+        assertArrayEquals(message, MerkleHellmanKnapsack.decryptBytes(cipherText, context));
+        assertArrayEquals(MerkleHellmanKnapsack.decryptBytes(cipherText, KEY_PAIR.getPrivateKey()),
+                MerkleHellmanKnapsack.decryptBytes(cipherText, context));
+    }
+}
@@ -0,0 +1,57 @@
+package edu.cmu.andrew.mpanindr;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EncryptionTableTest {
+
+    private static final KeyPair KEY_PAIR = TestKeys.generate(12 * 8);
+
+    // Test that both window widths produce the same ciphertext as bit-by-bit encryption
+    @Test
+    void testTableMatchesDirectEncryption() {
+        EncryptionTable wide = EncryptionTable.build(KEY_PAIR.getPublicKey(), 8);
+        EncryptionTable narrow = EncryptionTable.build(KEY_PAIR.getPublicKey(), 4);
+        Random random = new Random(5);
+        for (int length = 0; length <= 12; length++) {
+            byte[] message = new byte[length];
+            random.nextBytes(message);
+            BigInteger expected = MerkleHellmanKnapsack.encrypt(message, KEY_PAIR.getPublicKey());
+            assertEquals(expected, wide.encrypt(message));
+            assertEquals(expected, narrow.encrypt(message));
+        }
+    }
+
+    // Test a key whose size is not a multiple of the window width
+    @Test
+    void testPartialLastWindow() {
+        BigInteger[] b = new BigInteger[13];
+        for (int i = 0; i < b.length; i++) {
+            b[i] = BigInteger.valueOf(1L << i);
+        }
+        PublicKey publicKey = new PublicKey(b);
+        byte[] message = {(byte) 0xFF};
+        assertEquals(BigInteger.valueOf(255), EncryptionTable.build(publicKey, 8).encrypt(message));
+        assertEquals(BigInteger.valueOf(255), EncryptionTable.build(publicKey, 4).encrypt(message));
+    }
+
+    // Test that table-encrypted messages decrypt correctly
+    @Test
+    void testTableRoundTrip() {
+        byte[] message = "Table driven".getBytes();
+        BigInteger cipherText = EncryptionTable.build(KEY_PAIR.getPublicKey(), 8).encrypt(message);
+        assertArrayEquals(message, MerkleHellmanKnapsack.decryptBytes(cipherText, KEY_PAIR.getPrivateKey()));
+    }
+
+    // Test that unsupported window widths and oversized messages are rejected
+    @Test
+    void testInvalidArgumentsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> EncryptionTable.build(KEY_PAIR.getPublicKey(), 6));
+        EncryptionTable table = EncryptionTable.build(KEY_PAIR.getPublicKey(), 4);
+        assertThrows(IllegalArgumentException.class, () -> table.encrypt(new byte[13]));
+    }
+}
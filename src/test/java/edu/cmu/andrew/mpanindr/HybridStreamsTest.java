@@ -0,0 +1,93 @@
+package edu.cmu.andrew.mpanindr;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HybridStreamsTest {
+
+    private static KeyPair keyPair;
+
+    @BeforeAll
+    static void generateKeys() {
+        keyPair = TestKeys.generate(HybridStreams.SESSION_KEY_BYTES * 8);
+    }
+
+    // Test a round trip of a payload spanning several chunks, including a partial last chunk
+    @Test
+    void testMultiChunkRoundTrip() throws IOException {
+        byte[] payload = new byte[HybridStreams.CHUNK_SIZE * 3 + 123];
+        new Random(5).nextBytes(payload);
+        assertArrayEquals(payload, decrypt(encrypt(payload)));
+    }
+
+    // Test payloads that are empty or exactly one chunk long
+    @Test
+    void testBoundaryLengths() throws IOException {
+        assertArrayEquals(new byte[0], decrypt(encrypt(new byte[0])));
+        byte[] oneChunk = new byte[HybridStreams.CHUNK_SIZE];
+        Arrays.fill(oneChunk, (byte) 7);
+        assertArrayEquals(oneChunk, decrypt(encrypt(oneChunk)));
+    }
+
+    // Test that every stream uses a fresh session key
+    @Test
+    void testSessionKeysAreFresh() throws IOException {
+        byte[] payload = "same payload".getBytes();
+        assertFalse(Arrays.equals(encrypt(payload), encrypt(payload)));
+    }
+
+    // Test that modified ciphertext fails authentication
+    @Test
+    void testTamperingIsDetected() throws IOException {
+        byte[] stream = encrypt(new byte[1000]);
+        stream[stream.length - 20] ^= 1;
+        assertThrows(IOException.class, () -> decrypt(stream));
+    }
+
+    // Test that a stream cut off before its last chunk is rejected
+    @Test
+    void testTruncationIsDetected() throws IOException {
+        byte[] payload = new byte[HybridStreams.CHUNK_SIZE * 2];
+        byte[] stream = encrypt(payload);
+        byte[] truncated = Arrays.copyOf(stream, stream.length - (HybridStreams.CHUNK_SIZE + 16 + 5));
+        IOException e = assertThrows(IOException.class, () -> decrypt(truncated));
+        assertEquals("Encrypted stream is truncated", e.getMessage());
+    }
+
+    // Test that a stream cannot be decrypted with a different private key
+    @Test
+    void testWrongKeyIsRejected() throws IOException {
+        byte[] stream = encrypt(new byte[10]);
+        KeyPair other = TestKeys.generate(HybridStreams.SESSION_KEY_BYTES * 8);
+        assertThrows(IOException.class, () -> HybridStreams.decrypt(new ByteArrayInputStream(stream),
+                new ByteArrayOutputStream(), other.getPrivateKey()));
+    }
+
+    // Test that keys too small to carry a session key are rejected
+    @Test
+    void testSmallKeyIsRejected() {
+        KeyPair small = TestKeys.generate(64);
+        assertThrows(IllegalArgumentException.class, () -> HybridStreams.encrypt(new ByteArrayInputStream(new byte[1]),
+                new ByteArrayOutputStream(), small.getPublicKey()));
+    }
+
+    private static byte[] encrypt(byte[] payload) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(payload.length, HybridStreams.encrypt(new ByteArrayInputStream(payload), out, keyPair.getPublicKey()));
+        return out.toByteArray();
+    }
+
+    private static byte[] decrypt(byte[] stream) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        HybridStreams.decrypt(new ByteArrayInputStream(stream), out, keyPair.getPrivateKey());
+        return out.toByteArray();
+    }
+}
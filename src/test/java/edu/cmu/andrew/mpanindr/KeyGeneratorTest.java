@@ -0,0 +1,96 @@
+package edu.cmu.andrew.mpanindr;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeyGeneratorTest {
+
+    // Test that the generated key satisfies the Merkle-Hellman invariants
+    @Test
+    void testGeneratedKeyInvariants() {
+        KeyPair keyPair = new KeyGenerator(new Random(1)).generate(20 * 8);
+        PrivateKey privateKey = keyPair.getPrivateKey();
+
+        BigInteger sum = BigInteger.ZERO;
+        for (int i = 0; i < privateKey.size(); i++) {
+            assertTrue(privateKey.get(i).compareTo(sum) > 0, "sequence must be super-increasing");
+            sum = sum.add(privateKey.get(i));
+        }
+        assertTrue(privateKey.getQ().compareTo(sum) > 0, "q must exceed the sum of the sequence");
+        assertTrue(privateKey.getQ().isProbablePrime(50), "q must be prime");
+        assertEquals(BigInteger.ONE, privateKey.getR().gcd(privateKey.getQ()));
+        assertTrue(privateKey.getR().compareTo(BigInteger.TWO) >= 0);
+        assertTrue(privateKey.getR().compareTo(privateKey.getQ()) < 0);
+        assertEquals(160, keyPair.getPublicKey().size());
+    }
+
+    // Test that messages longer than 80 characters now decrypt correctly
+    @Test
+    void testLongMessageRoundTrip() {
+        byte[] message = "This message is longer than eighty characters, which the original key generation could not always handle."
+                .getBytes(StandardCharsets.UTF_8);
+        KeyPair keyPair = new KeyGenerator().generate(message.length * 8);
+
+        BigInteger cipherText = MerkleHellmanKnapsack.encrypt(message, keyPair.getPublicKey());
+        assertArrayEquals(message, MerkleHellmanKnapsack.decryptBytes(cipherText, keyPair.getPrivateKey()));
+    }
+
+    // Test generating an empty key
+    @Test
+    void testEmptyKey() {
+        KeyPair keyPair = new KeyGenerator(new Random(2)).generate(0);
+        assertEquals(0, keyPair.getPublicKey().size());
+        assertTrue(keyPair.getPrivateKey().getQ().signum() > 0);
+    }
+
+    // Test that a negative size is rejected
+    @Test
+    void testNegativeSizeIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new KeyGenerator().generate(-1));
+    }
+
+    // Test that bounded keys have predictable element sizes and decrypt long messages
+    @Test
+    void testBoundedElementSizes() {
+        int elementBits = 16;
+        byte[] message = new byte[200];
+        new Random(3).nextBytes(message);
+        KeyPair keyPair = new KeyGenerator(new Random(4)).generate(message.length * 8, elementBits);
+        PrivateKey privateKey = keyPair.getPrivateKey();
+
+        BigInteger sum = BigInteger.ZERO;
+        for (int i = 0; i < privateKey.size(); i++) {
+            int bits = privateKey.get(i).bitLength();
+            assertTrue(bits == elementBits + i || bits == elementBits + i + 1, "element " + i + " has " + bits + " bits");
+            assertTrue(privateKey.get(i).compareTo(sum) > 0, "sequence must be super-increasing");
+            sum = sum.add(privateKey.get(i));
+        }
+        assertTrue(privateKey.getQ().bitLength() <= elementBits + privateKey.size() + 2);
+
+        BigInteger cipherText = MerkleHellmanKnapsack.encrypt(message, keyPair.getPublicKey());
+        assertArrayEquals(message, MerkleHellmanKnapsack.decryptBytes(cipherText, privateKey));
+    }
+
+    // Test that a non-positive element size is rejected
+    @Test
+    void testNonPositiveElementBitsIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new KeyGenerator().generate(8, 0));
+    }
+
+    // Test that long keys from generate(int) keep random terms of at least MIN_TERM_BITS bits
+    @Test
+    void testLongKeysDoNotDegenerate() {
+        KeyPair keyPair = new KeyGenerator(new Random(5)).generate(1024);
+        PrivateKey privateKey = keyPair.getPrivateKey();
+
+        assertEquals(KeyGenerator.MIN_TERM_BITS, privateKey.get(0).bitLength());
+        assertEquals(KeyGenerator.MIN_TERM_BITS, privateKey.get(1).subtract(privateKey.get(0)).bitLength(),
+                "w_1 - w_0 is the random term of w_1");
+        assertNotEquals(privateKey.getR(), keyPair.getPublicKey().get(0));
+    }
+}
@@ -0,0 +1,67 @@
+package edu.cmu.andrew.mpanindr;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeyPoolTest {
+
+    // Waits up to five seconds for the pool to hold the expected number of keys
+    private static void awaitAvailable(KeyPool pool, int numberOfBits, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (pool.available(numberOfBits) < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, pool.available(numberOfBits));
+    }
+
+    // Test that the background thread fills the pool and takes are served as hits
+    @Test
+    void testPrefilledPoolServesHits() throws InterruptedException {
+        try (KeyPool pool = new KeyPool(new KeyGenerator(new Random()), 2, 4, 64)) {
+            pool.start();
+            awaitAvailable(pool, 64, 4);
+
+            KeyPair keyPair = pool.take(64);
+            assertEquals(64, keyPair.getPublicKey().size());
+            assertEquals(1, pool.getHits());
+            assertEquals(0, pool.getMisses());
+            assertTrue(pool.getRefills() >= 4);
+        }
+    }
+
+    // Test that dropping below the low-water mark triggers a refill
+    @Test
+    void testRefillAfterLowWater() throws InterruptedException {
+        try (KeyPool pool = new KeyPool(new KeyGenerator(new Random()), 2, 3, 32)) {
+            pool.start();
+            awaitAvailable(pool, 32, 3);
+            pool.take(32);
+            pool.take(32);
+
+            awaitAvailable(pool, 32, 3);
+            assertEquals(2, pool.getHits());
+        }
+    }
+
+    // Test that an unregistered size is generated inline and registered for later
+    @Test
+    void testMissGeneratesInline() throws InterruptedException {
+        try (KeyPool pool = new KeyPool(new KeyGenerator(new Random()), 1, 2)) {
+            KeyPair keyPair = pool.take(16);
+            assertEquals(16, keyPair.getPrivateKey().size());
+            assertEquals(1, pool.getMisses());
+
+            pool.start();
+            awaitAvailable(pool, 16, 2);
+        }
+    }
+
+    // Test that invalid water marks are rejected
+    @Test
+    void testInvalidWaterMarksAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new KeyPool(new KeyGenerator(), 4, 4));
+    }
+}
@@ -0,0 +1,83 @@
+package edu.cmu.andrew.mpanindr;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KnapsackFilesTest {
+
+    @TempDir
+    Path directory;
+
+    // Test a file round trip through key files written by the command-line entry point
+    @Test
+    void testCommandLineRoundTrip() throws IOException {
+        Path privateKey = directory.resolve("key.private");
+        Path publicKey = directory.resolve("key.public");
+        Path plain = directory.resolve("plain.bin");
+        Path cipher = directory.resolve("cipher.bin");
+        Path decrypted = directory.resolve("decrypted.bin");
+        byte[] data = new byte[10_000];
+        new Random(21).nextBytes(data);
+        Files.write(plain, data);
+
+        MerkleHellmanKnapsack.main(new String[]{"generate-key", "256", "32", privateKey.toString(), publicKey.toString()});
+        MerkleHellmanKnapsack.main(new String[]{"encrypt-file", publicKey.toString(), plain.toString(), cipher.toString()});
+        MerkleHellmanKnapsack.main(new String[]{"decrypt-file", privateKey.toString(), cipher.toString(), decrypted.toString()});
+
+        assertArrayEquals(data, Files.readAllBytes(decrypted));
+    }
+
+    // Test that generate-key logs its usage instead of throwing when a size is not a number or not positive
+    @Test
+    void testCommandLineRejectsInvalidKeySizes() throws IOException {
+        Path privateKey = directory.resolve("key.private");
+        Path publicKey = directory.resolve("key.public");
+
+        MerkleHellmanKnapsack.main(new String[]{"generate-key", "many", "32", privateKey.toString(), publicKey.toString()});
+        MerkleHellmanKnapsack.main(new String[]{"generate-key", "256", "0", privateKey.toString(), publicKey.toString()});
+        MerkleHellmanKnapsack.main(new String[]{"generate-key", "-8", "32", privateKey.toString(), publicKey.toString()});
+
+        assertFalse(Files.exists(privateKey));
+        assertFalse(Files.exists(publicKey));
+    }
+
+    // Test that encrypted files use the KnapsackStreams format
+    @Test
+    void testEncryptedFileIsAKnapsackStream() throws IOException {
+        KeyPair keyPair = TestKeys.generate(12 * 8);
+        Path plain = directory.resolve("plain.txt");
+        Path cipher = directory.resolve("cipher.bin");
+        Files.writeString(plain, "A file that spans several twelve-byte blocks.");
+
+        assertEquals(Files.size(plain), KnapsackFiles.encryptFile(keyPair.getPublicKey(), plain, cipher));
+
+        ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+        try (InputStream in = Files.newInputStream(cipher)) {
+            KnapsackStreams.decrypt(in, decrypted, keyPair.getPrivateKey());
+        }
+        assertArrayEquals(Files.readAllBytes(plain), decrypted.toByteArray());
+    }
+
+    // Test encrypting an empty file
+    @Test
+    void testEmptyFile() throws IOException {
+        KeyPair keyPair = TestKeys.generate(8 * 8);
+        Path plain = Files.createFile(directory.resolve("empty"));
+        Path cipher = directory.resolve("cipher.bin");
+        Path decrypted = directory.resolve("decrypted");
+
+        KnapsackFiles.encryptFile(keyPair.getPublicKey(), plain, cipher);
+        KnapsackFiles.decryptFile(new DecryptionContext(keyPair.getPrivateKey()), cipher, decrypted);
+
+        assertEquals(0, Files.size(decrypted));
+    }
+}
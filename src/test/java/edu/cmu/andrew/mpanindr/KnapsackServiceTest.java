@@ -0,0 +1,101 @@
+package edu.cmu.andrew.mpanindr;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KnapsackServiceTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private KnapsackService service;
+
+    @BeforeEach
+    void startService() throws IOException {
+        KeyRegistry registry = new KeyRegistry();
+        registry.register("test", TestKeys.generate(16 * 8));
+        service = new KnapsackService(registry, new InetSocketAddress("127.0.0.1", 0), 16, 1 << 16);
+        service.start();
+    }
+
+    @AfterEach
+    void stopService() {
+        service.close();
+    }
+
+    // Sends a POST request with the given body and returns the response
+    private HttpResponse<byte[]> post(String path, byte[] body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + service.getPort() + path))
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    // Test an encrypt/decrypt round trip through the service
+    @Test
+    void testRoundTrip() throws IOException, InterruptedException {
+        byte[] message = "Served on a virtual thread, longer than one block".getBytes(StandardCharsets.UTF_8);
+
+        HttpResponse<byte[]> encrypted = post("/encrypt/test", message);
+        assertEquals(200, encrypted.statusCode());
+        HttpResponse<byte[]> decrypted = post("/decrypt/test", encrypted.body());
+        assertEquals(200, decrypted.statusCode());
+
+        assertArrayEquals(message, decrypted.body());
+    }
+
+    // Test that a body limit too large to read one byte past is rejected up front
+    @Test
+    void testOversizedBodyLimitIsRejected() {
+        InetSocketAddress address = new InetSocketAddress("127.0.0.1", 0);
+        assertThrows(IllegalArgumentException.class,
+                () -> new KnapsackService(new KeyRegistry(), address, 16, Integer.MAX_VALUE));
+        assertThrows(IllegalArgumentException.class,
+                () -> new KnapsackService(new KeyRegistry(), address, 16, Integer.MAX_VALUE - 8));
+    }
+
+    // Test that a service with an explicit accept backlog serves requests and rejects a negative backlog
+    @Test
+    void testExplicitBacklog() throws IOException, InterruptedException {
+        KeyRegistry registry = new KeyRegistry();
+        registry.register("test", TestKeys.generate(8));
+        InetSocketAddress address = new InetSocketAddress("127.0.0.1", 0);
+        assertThrows(IllegalArgumentException.class, () -> new KnapsackService(registry, address, -1, 16, 1 << 16));
+
+        try (KnapsackService backlogged = new KnapsackService(registry, address, 64, 1, 1 << 16)) {
+            backlogged.start();
+            HttpRequest request = HttpRequest.newBuilder(
+                            URI.create("http://127.0.0.1:" + backlogged.getPort() + "/encrypt/test"))
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(new byte[1]))
+                    .build();
+            assertEquals(200, client.send(request, HttpResponse.BodyHandlers.ofByteArray()).statusCode());
+        }
+    }
+
+    // Test that an unknown key is reported as 404
+    @Test
+    void testUnknownKey() throws IOException, InterruptedException {
+        assertEquals(404, post("/encrypt/missing", new byte[4]).statusCode());
+    }
+
+    // Test that garbage ciphertext is reported as 400
+    @Test
+    void testInvalidCipherText() throws IOException, InterruptedException {
+        assertEquals(400, post("/decrypt/test", new byte[]{1, 2, 3, 4, 5, 6, 7, 8}).statusCode());
+    }
+
+    // Test that bodies above the limit are reported as 413
+    @Test
+    void testRequestTooLarge() throws IOException, InterruptedException {
+        assertEquals(413, post("/encrypt/test", new byte[(1 << 16) + 1]).statusCode());
+    }
+}
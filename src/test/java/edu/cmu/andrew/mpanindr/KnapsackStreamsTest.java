@@ -0,0 +1,82 @@
+package edu.cmu.andrew.mpanindr;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KnapsackStreamsTest {
+
+    private static final KeyPair KEY_PAIR = TestKeys.generate(16 * 8);
+
+    // Encrypts and then decrypts the given bytes through the streaming API
+    private static byte[] roundTrip(byte[] input) throws IOException {
+        ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+        long encryptedCount = KnapsackStreams.encrypt(new ByteArrayInputStream(input), encrypted, KEY_PAIR.getPublicKey());
+        assertEquals(input.length, encryptedCount);
+
+        ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+        long decryptedCount = KnapsackStreams.decrypt(
+                new ByteArrayInputStream(encrypted.toByteArray()), decrypted, KEY_PAIR.getPrivateKey());
+        assertEquals(input.length, decryptedCount);
+        return decrypted.toByteArray();
+    }
+
+    // Test a round trip whose length is not a multiple of the block size
+    @Test
+    void testRoundTripWithPartialLastBlock() throws IOException {
+        byte[] input = new byte[16 * 37 + 5];
+        new Random(42).nextBytes(input);
+        assertArrayEquals(input, roundTrip(input));
+    }
+
+    // Test a round trip of an empty stream
+    @Test
+    void testRoundTripEmptyStream() throws IOException {
+        assertArrayEquals(new byte[0], roundTrip(new byte[0]));
+    }
+
+    // Test that a stream missing its trailer is reported as truncated
+    @Test
+    void testTruncatedStreamIsRejected() throws IOException {
+        ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+        KnapsackStreams.encrypt(new ByteArrayInputStream(new byte[40]), encrypted, KEY_PAIR.getPublicKey());
+        byte[] truncated = Arrays.copyOf(encrypted.toByteArray(), encrypted.size() - 4);
+
+        assertThrows(IOException.class, () -> KnapsackStreams.decrypt(
+                new ByteArrayInputStream(truncated), new ByteArrayOutputStream(), KEY_PAIR.getPrivateKey()));
+    }
+
+    // Test that a stream encrypted with a different key size is rejected
+    @Test
+    void testKeySizeMismatchIsRejected() throws IOException {
+        ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+        KnapsackStreams.encrypt(new ByteArrayInputStream(new byte[10]), encrypted, KEY_PAIR.getPublicKey());
+        PrivateKey otherKey = TestKeys.generate(8 * 8).getPrivateKey();
+
+        assertThrows(IOException.class, () -> KnapsackStreams.decrypt(
+                new ByteArrayInputStream(encrypted.toByteArray()), new ByteArrayOutputStream(), otherKey));
+    }
+
+    // Test that a block frame holding a negative ciphertext is rejected as malformed
+    @Test
+    void testNegativeCipherTextIsRejected() throws IOException {
+        ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(encrypted);
+        KnapsackStreams.writeHeader(data, KEY_PAIR.getPublicKey().blockSize());
+        data.writeInt(1);
+        data.writeInt(1);
+        data.writeByte(0xFF);  // -1 as a two's-complement BigInteger
+        KnapsackStreams.writeTrailer(data);
+
+        IOException e = assertThrows(IOException.class, () -> KnapsackStreams.decrypt(
+                new ByteArrayInputStream(encrypted.toByteArray()), new ByteArrayOutputStream(), KEY_PAIR.getPrivateKey()));
+        assertEquals("Negative ciphertext in block frame", e.getMessage());
+    }
+}
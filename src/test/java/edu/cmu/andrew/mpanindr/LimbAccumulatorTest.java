@@ -0,0 +1,55 @@
+package edu.cmu.andrew.mpanindr;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LimbAccumulatorTest {
+
+    // Test that in-place sums match BigInteger addition, including carries across every limb
+    @Test
+    void testSumMatchesBigInteger() {
+        Random random = new Random(9);
+        LimbAccumulator accumulator = new LimbAccumulator(1);
+        BigInteger expected = BigInteger.ZERO;
+        for (int i = 0; i < 500; i++) {
+            BigInteger addend = new BigInteger(random.nextInt(700), random);
+            accumulator.add(LimbAccumulator.toLimbs(addend));
+            expected = expected.add(addend);
+        }
+        assertEquals(expected, accumulator.toBigInteger());
+    }
+
+    // Test a carry that ripples through all-ones limbs into a new limb
+    @Test
+    void testRipplingCarry() {
+        BigInteger allOnes = BigInteger.ONE.shiftLeft(96).subtract(BigInteger.ONE);
+        LimbAccumulator accumulator = new LimbAccumulator(3);
+        accumulator.add(LimbAccumulator.toLimbs(allOnes));
+        accumulator.add(LimbAccumulator.toLimbs(BigInteger.ONE));
+        assertEquals(BigInteger.ONE.shiftLeft(96), accumulator.toBigInteger());
+    }
+
+    // Test that reset returns the accumulator to zero
+    @Test
+    void testReset() {
+        LimbAccumulator accumulator = new LimbAccumulator(4);
+        accumulator.add(LimbAccumulator.toLimbs(BigInteger.TEN.pow(30)));
+        accumulator.reset();
+        assertEquals(BigInteger.ZERO, accumulator.toBigInteger());
+        accumulator.add(LimbAccumulator.toLimbs(BigInteger.valueOf(42)));
+        assertEquals(BigInteger.valueOf(42), accumulator.toBigInteger());
+    }
+
+    // Test limb conversion of values with a leading sign byte
+    @Test
+    void testToLimbs() {
+        assertArrayEquals(new int[0], LimbAccumulator.toLimbs(BigInteger.ZERO));
+        assertArrayEquals(new int[]{0xFFFFFFFF}, LimbAccumulator.toLimbs(BigInteger.valueOf(0xFFFFFFFFL)));
+        assertArrayEquals(new int[]{0, 1}, LimbAccumulator.toLimbs(BigInteger.ONE.shiftLeft(32)));
+        assertThrows(IllegalArgumentException.class, () -> LimbAccumulator.toLimbs(BigInteger.valueOf(-1)));
+    }
+}
@@ -0,0 +1,32 @@
+package edu.cmu.andrew.mpanindr;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogValuesTest {
+
+    // Test that small values are rendered in full
+    @Test
+    void testSmallValuesAreRenderedInFull() {
+        BigInteger value = BigInteger.TWO.pow(LogValues.MAX_FULL_BITS).subtract(BigInteger.ONE);
+        assertEquals(value.toString(), LogValues.abbreviate(value).toString());
+        assertEquals("null", LogValues.abbreviate(null).toString());
+    }
+
+    // Test that large values are summarized by bit length, leading bytes and fingerprint
+    @Test
+    void testLargeValuesAreAbbreviated() {
+        BigInteger value = BigInteger.ONE.shiftLeft(4096).add(BigInteger.valueOf(12345));
+        String rendered = LogValues.abbreviate(value).toString();
+
+        assertTrue(rendered.startsWith("0x01000000"), rendered);
+        assertTrue(rendered.contains("4097 bits"), rendered);
+        assertTrue(rendered.length() < 80, rendered);
+        assertEquals(rendered, LogValues.abbreviate(new BigInteger(value.toString())).toString());
+        assertNotEquals(rendered, LogValues.abbreviate(value.add(BigInteger.ONE)).toString());
+        assertTrue(LogValues.abbreviate(value.negate()).toString().startsWith("-0x"));
+    }
+}
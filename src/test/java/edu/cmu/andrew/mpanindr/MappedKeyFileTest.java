@@ -0,0 +1,100 @@
+package edu.cmu.andrew.mpanindr;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class MappedKeyFileTest {
+
+    private static final KeyPair KEY_PAIR = TestKeys.generate(10 * 8);
+
+    @TempDir
+    Path directory;
+
+    // Test that a private key survives a write/open round trip element by element
+    @Test
+    void testPrivateKeyRoundTrip() throws IOException {
+        Path file = directory.resolve("private.mhk");
+        MappedKeyFile.write(file, KEY_PAIR.getPrivateKey());
+        MappedKeyFile mapped = MappedKeyFile.open(file);
+
+        PrivateKey privateKey = KEY_PAIR.getPrivateKey();
+        assertTrue(mapped.isPrivate());
+        assertEquals(privateKey.size(), mapped.size());
+        assertEquals(privateKey.get(42), mapped.element(42));
+        assertEquals(privateKey.getR(), mapped.getR());
+        assertEquals(privateKey.getQ(), mapped.getQ());
+
+        BigInteger cipherText = MerkleHellmanKnapsack.encrypt("Mapped key".getBytes(), mapped.toPublicKey());
+        assertArrayEquals("Mapped key".getBytes(), MerkleHellmanKnapsack.decryptBytes(cipherText, mapped.toPrivateKey()));
+    }
+
+    // Test that opening a key file decodes nothing and element(i) decodes only the element it returns
+    @Test
+    void testElementsAreDecodedLazily() throws IOException {
+        Path file = directory.resolve("lazy.mhk");
+        MappedKeyFile.write(file, KEY_PAIR.getPrivateKey());
+        MappedKeyFile mapped = MappedKeyFile.open(file);
+
+        for (int i = 0; i < mapped.size(); i++) {
+            assertFalse(mapped.isDecoded(i));
+        }
+        for (int i = mapped.size() - 1; i >= 0; i -= 7) {
+            assertEquals(KEY_PAIR.getPrivateKey().get(i), mapped.element(i));
+            assertTrue(mapped.isDecoded(i));
+        }
+        assertFalse(mapped.isDecoded(mapped.size() - 2));
+        assertSame(mapped.element(3), mapped.element(3));
+    }
+
+    // Test that a public key round trip keeps every element and rejects private-only accessors
+    @Test
+    void testPublicKeyRoundTrip() throws IOException {
+        Path file = directory.resolve("public.mhk");
+        MappedKeyFile.write(file, KEY_PAIR.getPublicKey());
+        MappedKeyFile mapped = MappedKeyFile.open(file);
+
+        assertFalse(mapped.isPrivate());
+        for (int i = 0; i < mapped.size(); i++) {
+            assertEquals(KEY_PAIR.getPublicKey().get(i), mapped.element(i));
+        }
+        assertThrows(IllegalStateException.class, mapped::getQ);
+    }
+
+    // Test that private key files are owner-only, including when they replace a world-readable file
+    @Test
+    void testPrivateKeyFileIsOwnerOnly() throws IOException {
+        assumeTrue(directory.getFileSystem().supportedFileAttributeViews().contains("posix"));
+        Path fresh = directory.resolve("fresh.mhk");
+        MappedKeyFile.write(fresh, KEY_PAIR.getPrivateKey());
+        assertEquals("rw-------", PosixFilePermissions.toString(Files.getPosixFilePermissions(fresh)));
+
+        Path replaced = directory.resolve("replaced.mhk");
+        Files.createFile(replaced, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-r--r--")));
+        MappedKeyFile.write(replaced, KEY_PAIR.getPrivateKey());
+        assertEquals("rw-------", PosixFilePermissions.toString(Files.getPosixFilePermissions(replaced)));
+    }
+
+    // Test that files that are not key files, or are truncated, are rejected
+    @Test
+    void testInvalidFilesAreRejected() throws IOException {
+        Path garbage = directory.resolve("garbage.mhk");
+        Files.write(garbage, new byte[32]);
+        assertThrows(IOException.class, () -> MappedKeyFile.open(garbage));
+
+        Path truncated = directory.resolve("truncated.mhk");
+        MappedKeyFile.write(truncated, KEY_PAIR.getPublicKey());
+        byte[] bytes = Files.readAllBytes(truncated);
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IOException.class, () -> MappedKeyFile.open(truncated));
+    }
+}
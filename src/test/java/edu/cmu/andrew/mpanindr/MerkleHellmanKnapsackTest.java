@@ -2,6 +2,9 @@ package edu.cmu.andrew.mpanindr;
 
 import org.junit.jupiter.api.Test;
 import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -39,8 +42,8 @@ class MerkleHellmanKnapsackTest {
     @Test
     void testEncryptDecryptRoundTrip() {
         String input = "EncryptThis";
-        SinglyLinkedList wList = new SinglyLinkedList();
-        SinglyLinkedList bList = new SinglyLinkedList();
+        SinglyLinkedList<BigInteger> wList = new SinglyLinkedList<>();
+        SinglyLinkedList<BigInteger> bList = new SinglyLinkedList<>();
 
         BigInteger r = new BigInteger(BIT_LENGTH, new Random());
         BigInteger q = new BigInteger(BIT_LENGTH, new Random());
@@ -65,7 +68,7 @@ class MerkleHellmanKnapsackTest {
 
         // Generate the public key b
         for (int i = 0; i < wList.countNodes(); i++) {
-            BigInteger w_i = (BigInteger) wList.getObjectAt(i);
+            BigInteger w_i = wList.getObjectAt(i);
             BigInteger b_i = (r.multiply(w_i)).mod(q);
             bList.addAtEndNode(b_i);
         }
@@ -86,8 +89,8 @@ class MerkleHellmanKnapsackTest {
     @Test
     void testEncryptDecryptWithEmptyString() {
         String input = "";
-        SinglyLinkedList wList = new SinglyLinkedList();
-        SinglyLinkedList bList = new SinglyLinkedList();
+        SinglyLinkedList<BigInteger> wList = new SinglyLinkedList<>();
+        SinglyLinkedList<BigInteger> bList = new SinglyLinkedList<>();
 
         BigInteger r = new BigInteger(BIT_LENGTH, new Random());
         BigInteger q = new BigInteger(BIT_LENGTH, new Random());
@@ -123,8 +126,8 @@ class MerkleHellmanKnapsackTest {
     @Test
     void testEncryptDecryptWithSpecialCharacters() {
         String input = "Special@#123!$%^&*()";
-        SinglyLinkedList wList = new SinglyLinkedList();
-        SinglyLinkedList bList = new SinglyLinkedList();
+        SinglyLinkedList<BigInteger> wList = new SinglyLinkedList<>();
+        SinglyLinkedList<BigInteger> bList = new SinglyLinkedList<>();
 
         BigInteger r = new BigInteger(BIT_LENGTH, new Random());
         BigInteger q = new BigInteger(BIT_LENGTH, new Random());
@@ -149,7 +152,7 @@ class MerkleHellmanKnapsackTest {
 
         // Generate the public key b
         for (int i = 0; i < wList.countNodes(); i++) {
-            BigInteger w_i = (BigInteger) wList.getObjectAt(i);
+            BigInteger w_i = wList.getObjectAt(i);
             BigInteger b_i = (r.multiply(w_i)).mod(q);
             bList.addAtEndNode(b_i);
         }
@@ -165,4 +168,122 @@ class MerkleHellmanKnapsackTest {
         // Ensure the decrypted string matches the original
         assertEquals(input, decryptedString);
     }
-}
\ No newline at end of file
+
+    // Test encryption and decryption round trip with indexed keys built from the lists
+    @Test
+    void testEncryptDecryptWithIndexedKeys() {
+        String input = "IndexedKeys";
+        SinglyLinkedList<BigInteger> wList = new SinglyLinkedList<>();
+
+        BigInteger q = BigInteger.ONE.shiftLeft(BIT_LENGTH).nextProbablePrime();
+        BigInteger r = new BigInteger(BIT_LENGTH - 1, new Random()).add(BigInteger.TWO);
+
+        int numberOfBits = input.length() * 8;
+        BigInteger sum = BigInteger.ZERO;
+        for (int i = 0; i < numberOfBits; i++) {
+            BigInteger nextValue = sum.add(new BigInteger(BIT_LENGTH / numberOfBits, new Random())).add(BigInteger.ONE);
+            wList.addAtEndNode(nextValue);
+            sum = sum.add(nextValue);
+        }
+
+        KeyPair keyPair = new KeyPair(PrivateKey.fromList(wList, r, q));
+        assertEquals(numberOfBits, keyPair.getPublicKey().size());
+        assertEquals(wList.getObjectAt(5), keyPair.getPrivateKey().get(5));
+        assertEquals(r.multiply(keyPair.getPrivateKey().get(5)).mod(q), keyPair.getPublicKey().get(5));
+
+        String binaryString = MerkleHellmanKnapsack.stringToBinary(input);
+        BigInteger cipherText = MerkleHellmanKnapsack.encrypt(binaryString, keyPair.getPublicKey());
+        String decryptedBinary = MerkleHellmanKnapsack.decrypt(cipherText, keyPair.getPrivateKey());
+
+        assertEquals(input, MerkleHellmanKnapsack.binaryToString(decryptedBinary));
+    }
+
+    // Test that a message longer than the public key is rejected
+    @Test
+    void testEncryptRejectsMessageLongerThanKey() {
+        PublicKey publicKey = new PublicKey(new BigInteger[]{BigInteger.ONE, BigInteger.TWO});
+        assertThrows(IllegalArgumentException.class, () -> MerkleHellmanKnapsack.encrypt("101", publicKey));
+    }
+
+    // Test that characters above 255 survive the binary conversion round trip
+    @Test
+    void testBinaryConversionWithNonLatinCharacters() {
+        String input = "Ωmega €5 \u4e2d";
+        String binary = MerkleHellmanKnapsack.stringToBinary(input);
+        assertEquals(input.getBytes(StandardCharsets.UTF_8).length * 8, binary.length());
+        assertEquals(input, MerkleHellmanKnapsack.binaryToString(binary));
+    }
+
+    // Test that the byte and binary-string encryption paths produce the same ciphertext
+    @Test
+    void testByteEncryptionMatchesStringEncryption() {
+        byte[] message = "Bytes & bits".getBytes(StandardCharsets.UTF_8);
+        KeyPair keyPair = TestKeys.generate(message.length * 8);
+
+        BigInteger fromBytes = MerkleHellmanKnapsack.encrypt(message, keyPair.getPublicKey());
+        BigInteger fromString = MerkleHellmanKnapsack.encrypt(
+                MerkleHellmanKnapsack.stringToBinary("Bytes & bits"), keyPair.getPublicKey());
+
+        assertEquals(fromString, fromBytes);
+    }
+
+    // Test byte encryption and decryption round trip, including non-ASCII bytes
+    @Test
+    void testEncryptDecryptBytesRoundTrip() {
+        byte[] message = "Grüße, 世界!".getBytes(StandardCharsets.UTF_8);
+        KeyPair keyPair = TestKeys.generate(message.length * 8);
+
+        BigInteger cipherText = MerkleHellmanKnapsack.encrypt(message, keyPair.getPublicKey());
+        byte[] decrypted = MerkleHellmanKnapsack.decryptBytes(cipherText, keyPair.getPrivateKey());
+
+        assertArrayEquals(message, decrypted);
+    }
+
+    // Test that a ciphertext which is not a subset sum of the key is reported as corrupt
+    @Test
+    void testDecryptRejectsCorruptCipherText() {
+        byte[] message = "corrupt".getBytes(StandardCharsets.UTF_8);
+        KeyPair keyPair = TestKeys.generate(message.length * 8);
+        BigInteger cipherText = MerkleHellmanKnapsack.encrypt(message, keyPair.getPublicKey());
+
+        // c' = q - 1 exceeds the sum of the sequence, so no subset can produce it
+        BigInteger corrupt = keyPair.getPrivateKey().getQ().subtract(BigInteger.ONE).multiply(keyPair.getPrivateKey().getR());
+        assertThrows(IllegalArgumentException.class,
+                () -> MerkleHellmanKnapsack.decryptBytes(corrupt, keyPair.getPrivateKey()));
+        assertArrayEquals(message, MerkleHellmanKnapsack.decryptBytes(cipherText, keyPair.getPrivateKey()));
+    }
+
+    // Test that batch encryption matches per-message encryption, with and without a table
+    @Test
+    void testEncryptBatchMatchesSingleEncryption() {
+        KeyPair keyPair = TestKeys.generate(16 * 8);
+        Random random = new Random(13);
+        List<byte[]> messages = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            byte[] message = new byte[random.nextInt(17)];
+            random.nextBytes(message);
+            messages.add(message);
+        }
+
+        BigInteger[] plain = new BigInteger[messages.size()];
+        BigInteger[] tabled = new BigInteger[messages.size()];
+        BatchStatistics statistics = MerkleHellmanKnapsack.encryptBatch(messages, keyPair.getPublicKey(), plain);
+        MerkleHellmanKnapsack.encryptBatch(messages, EncryptionTable.build(keyPair.getPublicKey(), 8), tabled);
+
+        assertEquals(50, statistics.getMessages());
+        for (int i = 0; i < messages.size(); i++) {
+            BigInteger expected = MerkleHellmanKnapsack.encrypt(messages.get(i), keyPair.getPublicKey());
+            assertEquals(expected, plain[i]);
+            assertEquals(expected, tabled[i]);
+        }
+    }
+
+    // Test that a batch output array that is too small is rejected
+    @Test
+    void testEncryptBatchRejectsSmallOutput() {
+        KeyPair keyPair = TestKeys.generate(8);
+        List<byte[]> messages = List.of(new byte[1], new byte[1]);
+        assertThrows(IllegalArgumentException.class,
+                () -> MerkleHellmanKnapsack.encryptBatch(messages, keyPair.getPublicKey(), new BigInteger[1]));
+    }
+}
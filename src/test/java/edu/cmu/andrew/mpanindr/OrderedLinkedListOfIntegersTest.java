@@ -0,0 +1,167 @@
+package edu.cmu.andrew.mpanindr;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderedLinkedListOfIntegersTest {
+
+    // Test that values added in any order come out sorted
+    @Test
+    void testSortedAdd() {
+        OrderedLinkedListOfIntegers list = new OrderedLinkedListOfIntegers();
+        list.sortedAdd(5);
+        list.sortedAdd(1);
+        list.sortedAdd(3);
+        list.sortedAdd(3);
+        list.sortedAdd(-2);
+        assertEquals("[-2 -> 1 -> 3 -> 3 -> 5]", list.toString());
+        assertEquals(5, list.size());
+    }
+
+    // Test that the list grows past its initial capacity and stays sorted
+    @Test
+    void testManyValues() {
+        Random random = new Random(6);
+        int[] values = new int[1000];
+        OrderedLinkedListOfIntegers list = new OrderedLinkedListOfIntegers();
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextInt();
+            list.sortedAdd(values[i]);
+        }
+        Arrays.sort(values);
+        assertArrayEquals(values, toArray(list));
+    }
+
+    // Test iteration with reset(), hasNext() and next()
+    @Test
+    void testIterator() {
+        OrderedLinkedListOfIntegers list = new OrderedLinkedListOfIntegers();
+        list.sortedAdd(2);
+        list.sortedAdd(1);
+        list.reset();
+        assertTrue(list.hasNext());
+        assertEquals(1, list.next());
+        assertEquals(2, list.next());
+        assertFalse(list.hasNext());
+        assertNull(list.next());
+    }
+
+    // Test merging two ordered lists without modifying them
+    @Test
+    void testMerge() {
+        OrderedLinkedListOfIntegers list1 = new OrderedLinkedListOfIntegers();
+        OrderedLinkedListOfIntegers list2 = new OrderedLinkedListOfIntegers();
+        for (int value : new int[]{1, 4, 4, 9}) {
+            list1.sortedAdd(value);
+        }
+        for (int value : new int[]{0, 4, 10}) {
+            list2.sortedAdd(value);
+        }
+
+        OrderedLinkedListOfIntegers merged = OrderedLinkedListOfIntegers.merge(list1, list2);
+        assertEquals("[0 -> 1 -> 4 -> 4 -> 4 -> 9 -> 10]", merged.toString());
+        assertEquals("[1 -> 4 -> 4 -> 9]", list1.toString());
+        assertEquals("[0 -> 4 -> 10]", list2.toString());
+    }
+
+    // Test that a merge of large lists is correct and keeps appending in sorted order
+    @Test
+    void testLargeMerge() {
+        OrderedLinkedListOfIntegers list1 = new OrderedLinkedListOfIntegers();
+        OrderedLinkedListOfIntegers list2 = new OrderedLinkedListOfIntegers();
+        for (int i = 0; i < 100_000; i++) {
+            list1.sortedAdd(2 * i);
+            list2.sortedAdd(2 * i + 1);
+        }
+
+        OrderedLinkedListOfIntegers merged = OrderedLinkedListOfIntegers.merge(list1, list2);
+        int[] values = toArray(merged);
+        assertEquals(200_000, values.length);
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(i, values[i]);
+        }
+        merged.sortedAdd(-1);
+        merged.sortedAdd(500_000);
+        assertEquals(-1, toArray(merged)[0]);
+        assertEquals(500_000, toArray(merged)[200_001]);
+    }
+
+    // Test a k-way merge of random lists, including empty ones
+    @Test
+    void testKWayMerge() {
+        Random random = new Random(7);
+        List<OrderedLinkedListOfIntegers> lists = new ArrayList<>();
+        List<Integer> expected = new ArrayList<>();
+        for (int k = 0; k < 9; k++) {
+            OrderedLinkedListOfIntegers list = new OrderedLinkedListOfIntegers();
+            int count = k % 3 == 0 ? 0 : random.nextInt(200);
+            for (int i = 0; i < count; i++) {
+                int value = random.nextInt(1000) - 500;
+                list.sortedAdd(value);
+                expected.add(value);
+            }
+            lists.add(list);
+        }
+        expected.sort(null);
+
+        OrderedLinkedListOfIntegers merged = OrderedLinkedListOfIntegers.merge(lists);
+        assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), toArray(merged));
+        assertEquals("[]", OrderedLinkedListOfIntegers.merge(new ArrayList<>()).toString());
+    }
+
+    // Test bulk loading unsorted values into an existing list
+    @Test
+    void testAddAll() {
+        OrderedLinkedListOfIntegers list = new OrderedLinkedListOfIntegers();
+        list.sortedAdd(5);
+        list.sortedAdd(20);
+        int[] values = {30, -1, 5, 12, 7, 30};
+        list.addAll(values);
+        assertEquals("[-1 -> 5 -> 5 -> 7 -> 12 -> 20 -> 30 -> 30]", list.toString());
+        assertArrayEquals(new int[]{30, -1, 5, 12, 7, 30}, values);
+
+        list.sortedAdd(31);
+        list.sortedAdd(0);
+        assertEquals("[-1 -> 0 -> 5 -> 5 -> 7 -> 12 -> 20 -> 30 -> 30 -> 31]", list.toString());
+    }
+
+    // Test bulk loading a million values from a stream
+    @Test
+    void testAddAllStream() {
+        OrderedLinkedListOfIntegers list = new OrderedLinkedListOfIntegers();
+        list.addAll(new Random(8).ints(1_000_000));
+        list.addAll(IntStream.empty());
+        int[] values = toArray(list);
+        assertEquals(1_000_000, values.length);
+        for (int i = 1; i < values.length; i++) {
+            assertTrue(values[i - 1] <= values[i]);
+        }
+    }
+
+    // Test the empty list
+    @Test
+    void testEmptyList() {
+        OrderedLinkedListOfIntegers list = new OrderedLinkedListOfIntegers();
+        assertEquals("[]", list.toString());
+        assertEquals(0, list.size());
+        list.reset();
+        assertFalse(list.hasNext());
+        assertEquals("[]", OrderedLinkedListOfIntegers.merge(list, new OrderedLinkedListOfIntegers()).toString());
+    }
+
+    static int[] toArray(OrderedLinkedListOfIntegers list) {
+        int[] result = new int[list.size()];
+        list.reset();
+        for (int i = 0; i < result.length; i++) {
+            result[i] = list.next();
+        }
+        return result;
+    }
+}
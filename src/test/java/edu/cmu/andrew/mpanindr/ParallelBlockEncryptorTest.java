@@ -0,0 +1,63 @@
+package edu.cmu.andrew.mpanindr;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelBlockEncryptorTest {
+
+    private static final KeyPair KEY_PAIR = TestKeys.generate(8 * 8);
+
+    // Test that every block matches its sequential encryption and comes back in order
+    @Test
+    void testBlocksMatchSequentialEncryption() {
+        byte[] message = new byte[8 * 100 + 3];
+        new Random(7).nextBytes(message);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            BigInteger[] blocks = new ParallelBlockEncryptor(pool, 1).encryptBlocks(message, KEY_PAIR.getPublicKey());
+
+            assertEquals(101, blocks.length);
+            for (int i = 0; i < blocks.length; i++) {
+                int length = Math.min(8, message.length - i * 8);
+                assertEquals(MerkleHellmanKnapsack.encrypt(message, i * 8, length, KEY_PAIR.getPublicKey()), blocks[i]);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Test that parallel output can be decrypted with the streaming decryptor
+    @Test
+    void testParallelStreamDecryptsWithKnapsackStreams() throws IOException {
+        byte[] message = new byte[1000];
+        new Random(11).nextBytes(message);
+        ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+        new ParallelBlockEncryptor().encrypt(message, encrypted, KEY_PAIR.getPublicKey());
+
+        ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+        KnapsackStreams.decrypt(new ByteArrayInputStream(encrypted.toByteArray()), decrypted, KEY_PAIR.getPrivateKey());
+
+        assertArrayEquals(message, decrypted.toByteArray());
+    }
+
+    // Test that an empty message produces no blocks
+    @Test
+    void testEmptyMessage() {
+        BigInteger[] blocks = new ParallelBlockEncryptor().encryptBlocks(new byte[0], KEY_PAIR.getPublicKey());
+        assertEquals(0, blocks.length);
+    }
+
+    // Test that an invalid threshold is rejected
+    @Test
+    void testInvalidThresholdIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new ParallelBlockEncryptor(ForkJoinPool.commonPool(), 0));
+    }
+}
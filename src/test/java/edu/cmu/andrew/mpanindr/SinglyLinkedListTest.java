@@ -1,6 +1,11 @@
 package edu.cmu.andrew.mpanindr;
 
 import org.junit.jupiter.api.Test;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class SinglyLinkedListTest {
@@ -8,7 +13,7 @@ class SinglyLinkedListTest {
     // Test adding a node at the end of the list
     @Test
     void testAddAtEndNode() {
-        SinglyLinkedList list = new SinglyLinkedList();
+        SinglyLinkedList<Character> list = new SinglyLinkedList<>();
         list.addAtEndNode('a');
         assertEquals('a', list.getLast());
     }
@@ -16,7 +21,7 @@ class SinglyLinkedListTest {
     // Test adding a node at the front of the list
     @Test
     void testAddAtFrontNode() {
-        SinglyLinkedList list = new SinglyLinkedList();
+        SinglyLinkedList<Character> list = new SinglyLinkedList<>();
         list.addAtFrontNode('b');
         list.addAtFrontNode('a');
         assertEquals('a', list.getObjectAt(0));
@@ -26,7 +31,7 @@ class SinglyLinkedListTest {
     // Test counting the number of nodes in the list
     @Test
     void testCountNodes() {
-        SinglyLinkedList list = new SinglyLinkedList();
+        SinglyLinkedList<Character> list = new SinglyLinkedList<>();
         list.addAtEndNode('a');
         list.addAtEndNode('b');
         assertEquals(2, list.countNodes());
@@ -35,7 +40,7 @@ class SinglyLinkedListTest {
     // Test retrieving the last element in the list
     @Test
     void testGetLast() {
-        SinglyLinkedList list = new SinglyLinkedList();
+        SinglyLinkedList<Character> list = new SinglyLinkedList<>();
         list.addAtEndNode('a');
         list.addAtEndNode('b');
         assertEquals('b', list.getLast());
@@ -44,7 +49,7 @@ class SinglyLinkedListTest {
     // Test retrieving an object by index
     @Test
     void testGetObjectAt() {
-        SinglyLinkedList list = new SinglyLinkedList();
+        SinglyLinkedList<Character> list = new SinglyLinkedList<>();
         list.addAtEndNode('a');
         list.addAtEndNode('b');
         list.addAtEndNode('c');
@@ -56,7 +61,7 @@ class SinglyLinkedListTest {
     // Test iterator functionality: hasNext() and next()
     @Test
     void testIterator() {
-        SinglyLinkedList list = new SinglyLinkedList();
+        SinglyLinkedList<Character> list = new SinglyLinkedList<>();
         list.addAtEndNode('a');
         list.addAtEndNode('b');
         list.addAtEndNode('c');
@@ -72,7 +77,7 @@ class SinglyLinkedListTest {
     // Test iterator functionality on an empty list
     @Test
     void testIteratorEmptyList() {
-        SinglyLinkedList list = new SinglyLinkedList();
+        SinglyLinkedList<Character> list = new SinglyLinkedList<>();
         list.reset(); // Reset the iterator
         assertFalse(list.hasNext());
         assertNull(list.next());
@@ -81,7 +86,7 @@ class SinglyLinkedListTest {
     // Test retrieving an object at an index out of bounds
     @Test
     void testGetObjectAtOutOfBounds() {
-        SinglyLinkedList list = new SinglyLinkedList();
+        SinglyLinkedList<Character> list = new SinglyLinkedList<>();
         list.addAtEndNode('a');
         list.addAtEndNode('b');
         assertThrows(IndexOutOfBoundsException.class, () -> {
@@ -92,7 +97,7 @@ class SinglyLinkedListTest {
     // Test toString method
     @Test
     void testToString() {
-        SinglyLinkedList list = new SinglyLinkedList();
+        SinglyLinkedList<Character> list = new SinglyLinkedList<>();
         list.addAtEndNode('a');
         list.addAtEndNode('b');
         list.addAtEndNode('c');
@@ -102,7 +107,7 @@ class SinglyLinkedListTest {
     // Test adding null values
     @Test
     void testAddNull() {
-        SinglyLinkedList list = new SinglyLinkedList();
+        SinglyLinkedList<Character> list = new SinglyLinkedList<>();
         list.addAtEndNode(null);
         assertEquals(1, list.countNodes());
         assertNull(list.getObjectAt(0));
@@ -111,7 +116,7 @@ class SinglyLinkedListTest {
     // Test iterator reset functionality
     @Test
     void testIteratorReset() {
-        SinglyLinkedList list = new SinglyLinkedList();
+        SinglyLinkedList<Character> list = new SinglyLinkedList<>();
         list.addAtEndNode('a');
         list.addAtEndNode('b');
         list.reset();
@@ -124,10 +129,121 @@ class SinglyLinkedListTest {
     // Test the list when it's empty
     @Test
     void testEmptyList() {
-        SinglyLinkedList list = new SinglyLinkedList();
+        SinglyLinkedList<Character> list = new SinglyLinkedList<>();
         assertEquals(0, list.countNodes());
         assertNull(list.getLast());
         assertNull(list.next());
         assertFalse(list.hasNext());
     }
-}
\ No newline at end of file
+
+    // Test indexed access in forward, backward and repeated order
+    @Test
+    void testGetObjectAtInAnyOrder() {
+        SinglyLinkedList<Integer> list = new SinglyLinkedList<>();
+        for (int i = 0; i < 100; i++) {
+            list.addAtEndNode(i);
+        }
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, list.getObjectAt(i));
+        }
+        for (int i = 99; i >= 0; i--) {
+            assertEquals(i, list.getObjectAt(i));
+        }
+        assertEquals(50, list.getObjectAt(50));
+        assertEquals(50, list.getObjectAt(50));
+        assertEquals(10, list.getObjectAt(10));
+    }
+
+    // Test that indexed access stays correct after nodes are added at either end
+    @Test
+    void testGetObjectAtAfterAdding() {
+        SinglyLinkedList<Character> list = new SinglyLinkedList<>();
+        list.addAtEndNode('b');
+        list.addAtEndNode('c');
+        assertEquals('b', list.getObjectAt(0));
+        list.addAtFrontNode('a');
+        assertEquals('a', list.getObjectAt(0));
+        assertEquals('b', list.getObjectAt(1));
+        list.addAtFrontNode('_');
+        assertEquals('c', list.getObjectAt(3));
+        list.addAtEndNode('d');
+        assertEquals('b', list.getObjectAt(2));
+        assertEquals('d', list.getObjectAt(4));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.getObjectAt(5));
+    }
+
+    // Test that nested for-each loops traverse the list independently
+    @Test
+    void testNestedIterators() {
+        SinglyLinkedList<Integer> list = new SinglyLinkedList<>();
+        for (int i = 1; i <= 3; i++) {
+            list.addAtEndNode(i);
+        }
+        int pairs = 0;
+        int sum = 0;
+        for (int outer : list) {
+            for (int inner : list) {
+                pairs++;
+                sum += outer * inner;
+            }
+        }
+        assertEquals(9, pairs);
+        assertEquals(36, sum);
+    }
+
+    // Test that iterators do not disturb the built-in cursor
+    @Test
+    void testIteratorLeavesCursorAlone() {
+        SinglyLinkedList<Character> list = new SinglyLinkedList<>();
+        list.addAtEndNode('a');
+        list.addAtEndNode('b');
+        list.reset();
+        assertEquals('a', list.next());
+        for (char c : list) {
+            assertTrue(c == 'a' || c == 'b');
+        }
+        assertEquals('b', list.next());
+    }
+
+    // Test that iterators fail fast after the list is modified, and when exhausted
+    @Test
+    void testIteratorFailFast() {
+        SinglyLinkedList<Character> list = new SinglyLinkedList<>();
+        list.addAtEndNode('a');
+        Iterator<Character> iterator = list.iterator();
+        list.addAtFrontNode('z');
+        assertThrows(ConcurrentModificationException.class, iterator::next);
+
+        Iterator<Character> fresh = list.iterator();
+        assertEquals('z', fresh.next());
+        assertEquals('a', fresh.next());
+        assertFalse(fresh.hasNext());
+        assertThrows(NoSuchElementException.class, fresh::next);
+    }
+
+    // Test that several threads can iterate a shared list at once
+    @Test
+    void testConcurrentIteration() throws InterruptedException {
+        SinglyLinkedList<Integer> list = new SinglyLinkedList<>();
+        for (int i = 0; i < 10_000; i++) {
+            list.addAtEndNode(i);
+        }
+        long[] sums = new long[4];
+        Thread[] threads = new Thread[sums.length];
+        for (int t = 0; t < threads.length; t++) {
+            int slot = t;
+            threads[t] = new Thread(() -> {
+                for (int value : list) {
+                    sums[slot] += value;
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (long sum : sums) {
+            assertEquals(49_995_000L, sum);
+        }
+    }
+}
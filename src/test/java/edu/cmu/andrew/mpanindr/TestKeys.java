@@ -0,0 +1,15 @@
+package edu.cmu.andrew.mpanindr;
+
+import java.util.Random;
+
+// Shared key generation for tests; a plain Random keeps the tests fast
+final class TestKeys {
+    private static final KeyGenerator GENERATOR = new KeyGenerator(new Random());
+
+    private TestKeys() {
+    }
+
+    static KeyPair generate(int numberOfBits) {
+        return GENERATOR.generate(numberOfBits);
+    }
+}